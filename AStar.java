@@ -0,0 +1,212 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/* A* search - goal directed Dijkstra for point to point queries with `non-negative` edge weights.
+Nodes are polled by dist[v] + h(v, end) instead of dist[v]. With an admissible heuristic
+(h never overestimates) the answer is still the shortest path, a good h settles far fewer nodes.
+
+Built-in heuristics
+ - zero         --> plain Dijkstra, baseline for getSettledCount()
+ - euclidean    --> straight line distance on planar coordinates * cost per unit
+ - haversine    --> great circle distance on lat/lon (degrees) * cost per meter
+ - alt          --> landmarks + triangle inequality: d(v, t) >= d(L, t) - d(L, v)
+                                                  d(v, t) >= d(v, L) - d(t, L)
+Cost per unit must not exceed the cheapest edge cost per unit of length, else h overestimates.
+
+time complexity: O(E * log(V)) worst case, same as Dijkstra
+*/
+
+class AStar {
+
+    interface Heuristic {
+        // lower bound on the cost `node` --> `target`
+        double estimate(int node, int target);
+    }
+
+    static final Heuristic ZERO = (node, target) -> 0.0;
+
+    private static final int NO_PREV = -1;
+    private static final int HEAP_ARITY = 4;
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    private final CSRGraph graph;
+    private final int numOfNodes;
+    private final Heuristic heuristic;
+    private final MinIndexedDHeap heap;
+    private double[] dist;
+    private int[] prev;
+    private int settledCount;
+
+
+    public AStar(CSRGraph graph, Heuristic heuristic) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be empty");
+        if(heuristic == null)
+            throw new IllegalArgumentException("Heuristic cannot be null");
+
+        this.graph = graph;
+        this.numOfNodes = graph.numOfNodes();
+        this.heuristic = heuristic;
+        this.heap = new MinIndexedDHeap(HEAP_ARITY, Math.max(1, numOfNodes));
+    }
+
+
+    // nodes polled from the heap by the last query
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+
+    List<Integer> reconstructPath(int start, int end) {
+
+        List<Integer> path = new ArrayList<>();
+        double distance = this.aStar(start, end);
+        if(distance == Double.POSITIVE_INFINITY)
+            return path;
+
+        for(int at = end; at != NO_PREV; at = this.prev[at])
+            path.add(at);
+
+        Collections.reverse(path);
+        return path;
+    }
+
+
+    public double aStar(int start, int end) {
+        prev = new int[numOfNodes];
+        Arrays.fill(prev, NO_PREV);
+        dist = new double[numOfNodes];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[start] = 0.0;
+        settledCount = 0;
+
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        heap.clear();
+        heap.insert(start, heuristic.estimate(start, end));
+
+        while(!heap.isEmpty()) {
+            int at = heap.pollMin();
+            settledCount++;
+
+            if(at == end)
+                return dist[end];
+
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                double newDist = dist[at] + costs[e];
+                if(newDist < dist[to]) {
+                    // f = g + h | h of a node never changes, so decrease of g is decrease of f
+                    double f = newDist + (dist[to] == Double.POSITIVE_INFINITY
+                        ? heuristic.estimate(to, end)
+                        : heap.lastValue(to) - dist[to]);
+                    dist[to] = newDist;
+                    prev[to] = at;
+
+                    // inconsistent heuristics may reopen an already settled node
+                    if(heap.contains(to))
+                        heap.decreaseKey(to, f);
+                    else
+                        heap.insert(to, f);
+                }
+            }
+        }
+
+        // Node is not reachable
+        return Double.POSITIVE_INFINITY;
+    }
+
+
+    static Heuristic euclidean(double[] x, double[] y, double costPerUnit) {
+        return (node, target) -> {
+            double dx = x[node] - x[target], dy = y[node] - y[target];
+            return Math.sqrt(dx * dx + dy * dy) * costPerUnit;
+        };
+    }
+
+
+    static Heuristic haversine(double[] lat, double[] lon, double costPerMeter) {
+        double[] phi = new double[lat.length], lambda = new double[lon.length];
+        for(int i = 0; i < lat.length; i++) {
+            phi[i] = Math.toRadians(lat[i]);
+            lambda[i] = Math.toRadians(lon[i]);
+        }
+
+        return (node, target) -> {
+            double dPhi = phi[target] - phi[node], dLambda = lambda[target] - lambda[node];
+            double a = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+                + Math.cos(phi[node]) * Math.cos(phi[target]) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+            return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a))) * costPerMeter;
+        };
+    }
+
+
+    // one forward and one reverse Dijkstra per landmark, O(L * E * log(V)) preprocessing
+    static Heuristic alt(CSRGraph graph, int... landmarks) {
+        int l = landmarks.length;
+        double[][] fromLandmark = new double[l][], toLandmark = new double[l][];
+        Dijkstra forward = new Dijkstra(graph, HEAP_ARITY);
+        Dijkstra backward = new Dijkstra(graph.reverse(), HEAP_ARITY);
+
+        for(int i = 0; i < l; i++) {
+            fromLandmark[i] = forward.dijkstra(landmarks[i]).clone();
+            toLandmark[i] = backward.dijkstra(landmarks[i]).clone();
+        }
+
+        return (node, target) -> {
+            double best = 0.0;
+            for(int i = 0; i < l; i++) {
+                double[] from = fromLandmark[i], to = toLandmark[i];
+                // infinite terms carry no usable bound, skip them
+                if(from[target] != Double.POSITIVE_INFINITY && from[node] != Double.POSITIVE_INFINITY)
+                    best = Math.max(best, from[target] - from[node]);
+                if(to[node] != Double.POSITIVE_INFINITY && to[target] != Double.POSITIVE_INFINITY)
+                    best = Math.max(best, to[node] - to[target]);
+            }
+            return best;
+        };
+    }
+
+
+    private static String formatPath(List<Integer> path) {
+        return path.stream().map(Object::toString).collect(Collectors.joining("->"));
+    }
+
+    public static void main(String[] args) {
+        // W x W grid, node (r, c) at coordinates (c, r), edge costs 10..14 per unit of length
+        final int W = 30, n = W * W;
+        double[] x = new double[n], y = new double[n];
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int r = 0; r < W; r++) {
+            for(int c = 0; c < W; c++) {
+                int v = r * W + c;
+                x[v] = c;
+                y[v] = r;
+                if(c + 1 < W) builder.connectEdge(v, v + 1, 10 + (v * 7) % 5);
+                if(r + 1 < W) builder.connectEdge(v, v + W, 10 + (v * 3) % 5);
+            }
+        }
+        CSRGraph graph = builder.build();
+        int start = (W / 2) * W, end = start + W - 1;     // middle row, left --> right
+
+        AStar dijkstra = new AStar(graph, ZERO);
+        AStar euclid = new AStar(graph, euclidean(x, y, 10));
+        AStar landmarks = new AStar(graph, alt(graph, 0, W - 1, n - W, n - 1));
+
+        System.out.printf("zero heuristic:      cost %.2f, settled %d\n", dijkstra.aStar(start, end), dijkstra.getSettledCount());
+        System.out.printf("euclidean heuristic: cost %.2f, settled %d\n", euclid.aStar(start, end), euclid.getSettledCount());
+        System.out.printf("ALT heuristic:       cost %.2f, settled %d\n", landmarks.aStar(start, end), landmarks.getSettledCount());
+        System.out.println("path 0 -> 34: " + formatPath(euclid.reconstructPath(0, 34)));
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+zero heuristic:      cost 347.00, settled 700
+euclidean heuristic: cost 347.00, settled 162
+ALT heuristic:       cost 347.00, settled 30
+path 0 -> 34: 0->30->31->32->33->34
+*/
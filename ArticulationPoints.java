@@ -9,6 +9,7 @@ Conditions for Articulation Points:
 1) Number of outgoing edges > 1
 2)  i. if their is a bridge
    ii. if their exists cycle
+Root of a DFS tree is one only when it has more than one child.
 
  time complexity O(V+E)
 */
@@ -16,75 +17,38 @@ Conditions for Articulation Points:
 class ArticulationPoints {
 
 
-    private List<List<Integer>> graph;
-    private int n, id, outEdgeCount;
-    private int[] ids, lows;
-    private boolean[] visited;
+    private CSRGraph graph;
     Set<Integer> articulationPoints;
     private boolean isSolved;
 
 
     public ArticulationPoints (List<List<Integer>> graph, int n) {
+        this(CSRGraph.fromAdjacency(graph, n));
+    }
+
+    // graph must hold both directions of every undirected edge (see CSRGraph.Builder#connectEdge)
+    public ArticulationPoints (CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph cannot be null");
         
         this.graph = graph;
-        this.n = n;
     }
 
 
+    // one iterative low-link pass, see BiconnectedComponents
     private Set<Integer> findArticulationPoints() {
         if(isSolved)
             return articulationPoints;
-        
-        id = 0;
-        lows = new int[n];  // low links
-        ids = new int[n];   // ids to compare
-        visited = new boolean[n];
-        articulationPoints = new HashSet<>();
 
-        for(int i = 0; i < n; i++) {
-            if(!visited[i]) {
-                outEdgeCount = 0;
-                dfs(i, i, -1); // -1: parent | their is no prev node
-                if(outEdgeCount > 1) 
-                    articulationPoints.add(i);
-                else if(articulationPoints.contains(i)) 
-                    articulationPoints.remove(i);
-            }
-        }
+        articulationPoints = new HashSet<>();
+        for(int v : new BiconnectedComponents(graph).getArticulationPoints())
+            articulationPoints.add(v);
 
         isSolved = true;
         return articulationPoints;
     }
 
 
-    private void dfs(int root, int at, int parent) {
-        if(root == parent)
-            outEdgeCount++;
-
-        visited[at] = true;
-        lows[at] = ids[at] = ++id;
-
-        for(Integer to : graph.get(at)) {
-            if(to == parent)    // as this is undirected graph | their is edge to parent node
-                continue;
-            if(!visited[to]) {
-                dfs(root, to, at);
-                lows[at] = Math.min(lows[at], lows[to]); //
-                
-                if(ids[at] < lows[to])              // bridge case
-                    articulationPoints.add(at);
-                if(ids[at] == lows[to])             // cycle case
-                    articulationPoints.add(at);
-            }
-            else {
-                lows[at] = Math.min(lows[at], ids[to]); //
-            }
-        }
-    }
-
-
     private static List<List<Integer>> initGraph (int n) {
         List<List<Integer>> graph = new ArrayList<>(n);
         for(int i = 0; i < n; i++)
@@ -14,19 +14,38 @@ class BFS {
     }
 
     private int n;
-    private List<List<Edge>> graph;
+    private CSRGraph graph;
     private Integer[] prev;
 
 
     public BFS(List<List<Edge>> graph) {
+        this(toCSR(graph));
+    }
+
+    public BFS(CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph should not be Null");
         this.graph = graph;
-        this.n = graph.size();
+        this.n = graph.numOfNodes();
         prev = new Integer[n];
     }
 
 
+    // costs come along although the traversal never reads them
+    private static CSRGraph toCSR(List<List<Edge>> graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph should not be Null");
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(graph.size());
+        for(List<Edge> edges : graph) {
+            for(Edge edge : edges)
+                builder.addEdge(edge.from, edge.to, edge.cost);
+        }
+
+        return builder.build();
+    }
+
+
     private List<Integer> reconstructPath(int start, int end) {
         
         List<Integer> path = new ArrayList<>();
@@ -50,8 +69,9 @@ class BFS {
     // In DFS, we first insert into stack, and at the beginning of while we check if it is visited
     // which is same as BFS. as operation is opposite to BFS. So, its actually same. 
     // As `what node` we are going to explore first we visit it then only. 
-    private void bfsIterative(int start) {
+    void bfsIterative(int start) {
         boolean[] visited = new boolean[n];
+        int[] offsets = graph.offsets(), targets = graph.targets();
         Deque<Integer> queue = new ArrayDeque<>(n);
         
         queue.offer(start);
@@ -59,12 +79,12 @@ class BFS {
 
         while(!queue.isEmpty()) {
             int node = queue.poll();
-            List<Edge> edges = graph.get(node);
-            for(Edge edge : edges) {
-                if(!visited[edge.to]) {
-                    visited[edge.to] = true;
-                    queue.offer(edge.to);
-                    prev[edge.to] = node;   // use to reconstruct path | saving parent node for every node
+            for(int e = offsets[node]; e < offsets[node + 1]; e++) {
+                int to = targets[e];
+                if(!visited[to]) {
+                    visited[to] = true;
+                    queue.offer(to);
+                    prev[to] = node;   // use to reconstruct path | saving parent node for every node
                 }
             }
             
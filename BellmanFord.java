@@ -1,6 +1,8 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /* Bellman Ford algorithm is Single Source Shortest Path (SSSP) algorithm
@@ -12,6 +14,13 @@ time complexity: O((E+V)*log(V))
 2. Set dist[start] = 0
 3. Relax each edge V-1 times
 4. In second pass, if node updates to better value. then set the cost to -inf
+
+Faster variants, all return a primitive double[] (-inf: reachable from a negative cycle)
+ - bellmanFordEarlyExit --> stops once a pass changes nothing, -inf marked by one DFS instead of V-1 passes
+ - spfa                 --> FIFO queue of nodes whose dist changed, only their edges are relaxed.
+                            len[v] = edges on the current path to v, len[v] >= V means a negative cycle
+ - bellmanFordParallel  --> pull style passes over the reverse graph, target ranges of equal edge count
+                            are relaxed on a ForkJoinPool. Every node is written by one task only
 */
 
 
@@ -29,16 +38,38 @@ class BellmanFord {
     } 
 
 
-    private List<List<Edge>> graph;
+    private static final int PARALLEL_CHUNKS_PER_WORKER = 8;
+
+    private CSRGraph graph;
+    private CSRGraph reverse;       // built on first parallel run
     private int numOfNodes;
     private Double[] dist; 
 
     public BellmanFord (List<List<Edge>> graph, int n) {
+        this(toCSR(graph, n));
+    }
+
+    public BellmanFord (CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph cannot be empty");
         
         this.graph = graph;
-        this.numOfNodes = n;
+        this.numOfNodes = graph.numOfNodes();
+    }
+
+
+    // negative costs are copied as they are, the Edge's own `from` picks the row
+    private static CSRGraph toCSR(List<List<Edge>> graph, int n) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be empty");
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(List<Edge> edges : graph) {
+            for(Edge edge : edges)
+                builder.addEdge(edge.from, edge.to, edge.cost);
+        }
+
+        return builder.build();
     }
 
 
@@ -50,23 +81,123 @@ class BellmanFord {
         Arrays.fill(dist, Double.POSITIVE_INFINITY);
         dist[start] = 0.0;
 
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
 
         // apply relaxation
         for(int i = 0; i < numOfNodes - 1; i++) {
-            for(List<Edge> edges : graph) {
-                for(Edge edge : edges) {
-                    if(dist[edge.from] + edge.cost < dist[edge.to])
-                        dist[edge.to] = dist[edge.from] + edge.cost;
+            for(int from = 0; from < numOfNodes; from++) {
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    if(dist[from] + costs[e] < dist[targets[e]])
+                        dist[targets[e]] = dist[from] + costs[e];
                 }
             }
         }
 
         // second pass to detect -ve cycle
         for(int i = 0; i < numOfNodes - 1; i++) {
-            for(List<Edge> edges : graph) {
-                for(Edge edge : edges) {
-                    if(dist[edge.from] + edge.cost < dist[edge.to])
-                        dist[edge.to] = Double.NEGATIVE_INFINITY;
+            for(int from = 0; from < numOfNodes; from++) {
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    if(dist[from] + costs[e] < dist[targets[e]])
+                        dist[targets[e]] = Double.NEGATIVE_INFINITY;
+                }
+            }
+        }
+
+        return dist;
+    }
+
+
+    // same result as bellmanFord, but quits as soon as a pass makes no update
+    public double[] bellmanFordEarlyExit(int start) {
+        double[] dist = initDist(start);
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+
+        boolean changed = true;
+        for(int i = 0; i < numOfNodes - 1 && changed; i++) {
+            changed = false;
+            for(int from = 0; from < numOfNodes; from++) {
+                if(dist[from] == Double.POSITIVE_INFINITY)
+                    continue;
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    if(dist[from] + costs[e] < dist[targets[e]]) {
+                        dist[targets[e]] = dist[from] + costs[e];
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        // converged early | no negative cycle is reachable
+        if(!changed)
+            return dist;
+
+        // anything that still relaxes is on or behind a negative cycle
+        int[] stack = new int[numOfNodes];
+        int top = 0;
+        for(int from = 0; from < numOfNodes; from++) {
+            for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int to = targets[e];
+                if(dist[from] + costs[e] < dist[to] && dist[to] != Double.NEGATIVE_INFINITY) {
+                    dist[to] = Double.NEGATIVE_INFINITY;
+                    stack[top++] = to;
+                }
+            }
+        }
+
+        markNegative(dist, stack, top);
+        return dist;
+    }
+
+
+    // Shortest Path Faster Algorithm | O(V * E) worst case, close to O(E) on most inputs
+    public double[] spfa(int start) {
+        double[] dist = initDist(start);
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+
+        int[] len = new int[numOfNodes];
+        boolean[] inQueue = new boolean[numOfNodes];
+        int[] stack = new int[numOfNodes];
+
+        // ring buffer | a node is queued at most once at a time, so V slots are enough
+        int[] queue = new int[numOfNodes];
+        int head = 0, size = 0;
+        queue[0] = start;
+        inQueue[start] = true;
+        size++;
+
+        while(size > 0) {
+            int at = queue[head];
+            head = head + 1 == numOfNodes ? 0 : head + 1;
+            size--;
+            inQueue[at] = false;
+
+            // marked while waiting in the queue
+            if(dist[at] == Double.NEGATIVE_INFINITY)
+                continue;
+
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                double newDist = dist[at] + costs[e];
+                if(newDist >= dist[to])
+                    continue;
+
+                dist[to] = newDist;
+                len[to] = len[at] + 1;
+
+                // a path of V edges repeats a node, and only a negative cycle makes it shorter
+                if(len[to] >= numOfNodes) {
+                    dist[to] = Double.NEGATIVE_INFINITY;
+                    stack[0] = to;
+                    markNegative(dist, stack, 1);
+                    if(dist[at] == Double.NEGATIVE_INFINITY)
+                        break;
+                    continue;
+                }
+
+                if(!inQueue[to]) {
+                    inQueue[to] = true;
+                    queue[head + size < numOfNodes ? head + size : head + size - numOfNodes] = to;
+                    size++;
                 }
             }
         }
@@ -75,6 +206,128 @@ class BellmanFord {
     }
 
 
+    // Jacobi style passes: next[v] = min(dist[v], dist[u] + cost(u, v)) over incoming edges of v
+    public double[] bellmanFordParallel(int start, ForkJoinPool pool) {
+        if(reverse == null)
+            reverse = graph.reverse();
+
+        int[] revOffsets = reverse.offsets(), sources = reverse.targets(), costs = reverse.costs();
+        int[] bounds = edgeBalancedBounds(revOffsets, pool.getParallelism() * PARALLEL_CHUNKS_PER_WORKER);
+        int chunks = bounds.length - 1;
+
+        double[] dist = initDist(start);
+        double[] next = dist.clone();
+        AtomicBoolean changed = new AtomicBoolean(true);
+
+        for(int i = 0; i < numOfNodes - 1 && changed.get(); i++) {
+            changed.set(false);
+            double[] cur = dist, out = next;
+            pool.invoke(new ParallelRange(0, chunks, 1, (lo, hi) -> {
+                boolean any = false;
+                for(int v = bounds[lo]; v < bounds[hi]; v++) {
+                    double best = cur[v];
+                    for(int e = revOffsets[v]; e < revOffsets[v + 1]; e++) {
+                        double candidate = cur[sources[e]] + costs[e];
+                        if(candidate < best)
+                            best = candidate;
+                    }
+                    if(best < cur[v])
+                        any = true;
+                    out[v] = best;
+                }
+                if(any)
+                    changed.set(true);
+            }));
+
+            dist = out;
+            next = cur;
+        }
+
+        if(!changed.get())
+            return dist;
+
+        // one more pull pass finds the nodes that still relax
+        boolean[] relaxes = new boolean[numOfNodes];
+        double[] cur = dist;
+        pool.invoke(new ParallelRange(0, chunks, 1, (lo, hi) -> {
+            for(int v = bounds[lo]; v < bounds[hi]; v++)
+                for(int e = revOffsets[v]; e < revOffsets[v + 1] && !relaxes[v]; e++)
+                    relaxes[v] = cur[sources[e]] + costs[e] < cur[v];
+        }));
+
+        int[] stack = new int[numOfNodes];
+        int top = 0;
+        for(int v = 0; v < numOfNodes; v++) {
+            if(relaxes[v]) {
+                dist[v] = Double.NEGATIVE_INFINITY;
+                stack[top++] = v;
+            }
+        }
+
+        markNegative(dist, stack, top);
+        return dist;
+    }
+
+
+    private double[] initDist(int start) {
+        double[] dist = new double[numOfNodes];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[start] = 0.0;
+        return dist;
+    }
+
+
+    // -inf spreads to everything reachable from the `top` nodes already on the stack
+    private void markNegative(double[] dist, int[] stack, int top) {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+
+        while(top > 0) {
+            int at = stack[--top];
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                if(dist[to] != Double.NEGATIVE_INFINITY) {
+                    dist[to] = Double.NEGATIVE_INFINITY;
+                    stack[top++] = to;
+                }
+            }
+        }
+    }
+
+
+    // node boundaries of `chunks` ranges holding about the same number of edges
+    private static int[] edgeBalancedBounds(int[] offsets, int chunks) {
+        int n = offsets.length - 1;
+        long m = offsets[n];
+        chunks = Math.max(1, Math.min(chunks, n));
+
+        int[] bounds = new int[chunks + 1];
+        int v = 0;
+        for(int c = 1; c < chunks; c++) {
+            long goal = m * c / chunks;
+            // at least one node per chunk keeps bounds strictly increasing
+            v = Math.max(v + 1, lowerBound(offsets, goal));
+            bounds[c] = Math.min(v, n - (chunks - c));
+            v = bounds[c];
+        }
+        bounds[chunks] = n;
+        return bounds;
+    }
+
+
+    // first index with offsets[i] >= goal
+    private static int lowerBound(int[] offsets, long goal) {
+        int lo = 0, hi = offsets.length - 1;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(offsets[mid] < goal)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+
     private static void addEdge(List<List<Edge>> graph, int from, int to, int cost) {
         graph.get(from).add(new Edge(from, to, cost));
     }
@@ -110,6 +363,13 @@ class BellmanFord {
 
         for(int i = 0; i < V; i++)
             System.out.printf("Cost: node %d -> %d == %.2f\n", start, i, dist[i]);
+
+        double[] early = bf.bellmanFordEarlyExit(start);
+        double[] queued = bf.spfa(start);
+        double[] parallel = bf.bellmanFordParallel(start, ForkJoinPool.commonPool());
+        System.out.println("Early exit: " + Arrays.toString(early));
+        System.out.println("SPFA:       " + Arrays.toString(queued));
+        System.out.println("Parallel:   " + Arrays.toString(parallel));
     }
 }
 
@@ -125,4 +385,7 @@ Cost: node 0 -> 5 == 5.00
 Cost: node 0 -> 6 == 5.00
 Cost: node 0 -> 7 == 8.00
 Cost: node 0 -> 8 == Infinity
+Early exit: [0.0, 1.0, -Infinity, -Infinity, -Infinity, 5.0, 5.0, 8.0, Infinity]
+SPFA:       [0.0, 1.0, -Infinity, -Infinity, -Infinity, 5.0, 5.0, 8.0, Infinity]
+Parallel:   [0.0, 1.0, -Infinity, -Infinity, -Infinity, 5.0, 5.0, 8.0, Infinity]
 */
\ No newline at end of file
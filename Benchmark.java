@@ -0,0 +1,667 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/* Benchmark suite - throughput and allocation of every algorithm and engine variant,
+on synthetic graph families of a few sizes, so a change can be checked for regressions.
+
+    java Benchmark                   --> every benchmark, default sizes
+    java Benchmark sssp              --> only names containing "sssp"
+    java Benchmark "scc rmat" 4      --> names containing "scc rmat", every size times 4
+
+Families (fixed seeds, the same graph every run, see GraphGenerator):
+    grid   W x W lattice, 4 neighbours, random costs 1..100
+    gnm    random G(n, m), m = 4n
+    rmat   power law R-MAT (a, b, c) = (0.57, 0.19, 0.19), m = 8n, n rounded up to a power of 2
+    road   lattice with 5% of the streets missing, slow local streets and fast arterials every 16 blocks
+    neg    G(n, m), m = 5n, costs shifted by random potentials so about a tenth are negative, no negative cycle
+    dag    64 wide layers, 4 edges into the next layer       cycle  4 Hamiltonian cycles (Eulerian)
+    chain  path 0 -> 1 -> .. -> n-1 + 3n random edges, the DFS runs as deep as the graph is large
+    tree   random spanning tree + 2n edges into the lower half, many tree edges stay bridges
+gnm / rmat are directed for traversal, SSSP and SCC and symmetric for bridges and MST,
+grid / road always hold both directions of a street.
+
+Measurement, per benchmark: the operation runs for WARMUP_NANOS to let the JIT settle, then
+for MEASURE_ITERATIONS iterations of ITERATION_NANOS each. Reported:
+    ops/s    mean and standard deviation over the measured iterations
+    B/op     heap bytes allocated per operation by all threads (ThreadMXBean), so the
+             ForkJoin workers of the parallel engines count as well
+Every operation returns a long that is folded into a sink, the JIT can not drop the work.
+Graph generation and preprocessing (CH, landmarks) happen before the warmup, not in the timing.
+*/
+
+class Benchmark {
+
+    private static final long WARMUP_NANOS = 300_000_000L;
+    private static final long ITERATION_NANOS = 200_000_000L;
+    private static final int MEASURE_ITERATIONS = 3;
+    private static final int COST_RANGE = 100;
+
+    private static volatile long sink;
+
+    // one timed operation, the result goes to the sink
+    private interface Operation {
+        long run();
+    }
+
+    // setup or operation that touches files
+    private interface IOAction<T> {
+        T run() throws IOException;
+    }
+
+    private static <T> T unchecked(IOAction<T> action) {
+        try {
+            return action.run();
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Case {
+        final String name;
+        final Supplier<Operation> setup;
+
+        Case(String group, String family, int size, String engine, Supplier<Operation> setup) {
+            this.name = String.format("%-7s %-5s %8d  %-14s", group, family, size, engine);
+            this.setup = setup;
+        }
+    }
+
+
+    private final List<Case> cases = new ArrayList<>();
+    private final Map<String, CSRGraph> graphs = new HashMap<>();
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+
+    // sizes of sparse graphs, dense matrices and TSP instances are multiplied by `scale`
+    private Benchmark(int scale) {
+        int[] sparse = {scale << 12, scale << 16};
+        int[] dense = {64 * scale, 128 * scale};
+        int[] tsp = {Math.min(16, 10 + scale), Math.min(18, 12 + scale)};
+
+        for(int n : sparse) {
+            generation(n);
+            io(n);
+            for(String family : new String[] {"grid", "gnm", "rmat"})
+                traversal(family, n);
+            for(String family : new String[] {"grid", "gnm", "road"})
+                singleSource(family, n, n == sparse[0]);
+            for(String family : new String[] {"grid", "road"}) {
+                pointToPoint(family, n);
+                manyToMany(family, n);
+            }
+            for(String family : new String[] {"gnm", "rmat", "chain"})
+                components(family, n);
+            for(String family : new String[] {"grid", "gnm", "road"})
+                undirected(family, n);
+            bridges("tree", n);
+            ordering(n);
+        }
+        for(int n : dense) {
+            allPairs(n);
+            sparseAllPairs(4 * n);
+        }
+        for(int n : tsp)
+            travellingSalesman(n);
+    }
+
+
+    // R-MAT edges of the rmat family, streamed vs. built into a CSRGraph
+    private void generation(int n) {
+        int scale = 32 - Integer.numberOfLeadingZeros(n - 1);
+        add("gen", "rmat", n, "stream", () -> () -> GraphGenerator.rmat(scale, 8L * n, n).count(pool));
+        add("gen", "rmat", n, "build", () -> () -> GraphGenerator.rmat(scale, 8L * n, n).build(pool).numOfEdges());
+    }
+
+
+    // gnm written once per format to a temp file, every operation loads it back
+    private void io(int n) {
+        add("io", "gnm", n, "text", () -> {
+            Path file = tempFile(".txt");
+            unchecked(() -> { GraphIO.writeEdgeList(file, graph("gnm", n, false)); return null; });
+            return () -> unchecked(() -> GraphIO.readEdgeList(file, n, false, pool)).numOfEdges();
+        });
+        add("io", "gnm", n, "binary", () -> {
+            Path file = tempFile(".gel");
+            unchecked(() -> { GraphIO.writeBinaryEdgeList(file, graph("gnm", n, false)); return null; });
+            return () -> unchecked(() -> GraphIO.readBinaryEdgeList(file, false, pool)).numOfEdges();
+        });
+        add("io", "gnm", n, "image", () -> {
+            Path file = tempFile(".csr");
+            unchecked(() -> { GraphIO.saveImage(file, graph("gnm", n, false)); return null; });
+            return () -> unchecked(() -> GraphIO.loadImage(file)).numOfEdges();
+        });
+    }
+
+    private static Path tempFile(String suffix) {
+        Path file = unchecked(() -> Files.createTempFile("benchmark", suffix));
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+
+    private void traversal(String family, int n) {
+        add("bfs", family, n, "queue", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> {
+                BFS bfs = new BFS(g);
+                bfs.bfsIterative(0);
+                return g.numOfNodes();
+            };
+        });
+        add("bfs", family, n, "direction-opt", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> new DirectionOptimizingBFS(g).bfs(0)[g.numOfNodes() - 1];
+        });
+        add("dfs", family, n, "iterative", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> DFS.dfsIterative(g, 0);
+        });
+    }
+
+
+    private void singleSource(String family, int n, boolean withBellmanFord) {
+        add("sssp", family, n, "lazy", () -> rotate(graph(family, n, false), new Dijkstra(graph(family, n, false))));
+        add("sssp", family, n, "eager-2", () -> rotate(graph(family, n, false), new Dijkstra(graph(family, n, false), 2)));
+        add("sssp", family, n, "eager-4", () -> rotate(graph(family, n, false), new Dijkstra(graph(family, n, false), 4)));
+        add("sssp", family, n, "delta-stepping", () -> {
+            CSRGraph g = graph(family, n, false);
+            return rotate(g, new DeltaStepping(g, pool, DeltaStepping.suggestDelta(g)));
+        });
+        // the extremes, parallel BFS like and few wide buckets
+        add("sssp", family, n, "delta-1", () -> rotate(graph(family, n, false), new DeltaStepping(graph(family, n, false), pool, 1)));
+        add("sssp", family, n, "delta-1000", () -> rotate(graph(family, n, false), new DeltaStepping(graph(family, n, false), pool, 1_000)));
+
+        // O(V * E) worst case | only the small size
+        if(!withBellmanFord)
+            return;
+        add("bellman", family, n, "early-exit", () -> {
+            BellmanFord bf = new BellmanFord(graph(family, n, false));
+            return () -> (long) bf.bellmanFordEarlyExit(0)[n - 1];
+        });
+        add("bellman", family, n, "spfa", () -> {
+            BellmanFord bf = new BellmanFord(graph(family, n, false));
+            return () -> (long) bf.spfa(0)[n - 1];
+        });
+        add("bellman", family, n, "parallel", () -> {
+            BellmanFord bf = new BellmanFord(graph(family, n, false));
+            return () -> (long) bf.bellmanFordParallel(0, pool)[n - 1];
+        });
+    }
+
+
+    // one source per operation, cycling through the nodes
+    private static Operation rotate(CSRGraph graph, Dijkstra dijkstra) {
+        int n = graph.numOfNodes();
+        int[] next = {0};
+        return () -> {
+            next[0] = (next[0] + 7919) % n;
+            return (long) dijkstra.dijkstra(next[0])[n - 1 - next[0]];
+        };
+    }
+
+    private static Operation rotate(CSRGraph graph, DeltaStepping engine) {
+        int n = graph.numOfNodes();
+        int[] next = {0};
+        return () -> {
+            next[0] = (next[0] + 7919) % n;
+            return (long) engine.deltaStepping(next[0])[n - 1 - next[0]];
+        };
+    }
+
+
+    private void pointToPoint(String family, int n) {
+        add("p2p", family, n, "dijkstra", () -> {
+            Dijkstra dijkstra = new Dijkstra(graph(family, n, false), 4);
+            int[] q = queries(n);
+            return cycle(q, (s, t) -> dijkstra.dijkstra(s, t));
+        });
+        add("p2p", family, n, "workspace", () -> {
+            DijkstraWorkspace ws = new DijkstraWorkspace(graph(family, n, false));
+            int[] q = queries(n);
+            return cycle(q, ws::query);
+        });
+        // all 256 queries per operation
+        add("p2p", family, n, "batch-256", () -> {
+            CSRGraph g = graph(family, n, false);
+            int[] q = queries(n), starts = new int[q.length / 2], ends = new int[q.length / 2];
+            for(int i = 0; i < starts.length; i++) {
+                starts[i] = q[2 * i];
+                ends[i] = q[2 * i + 1];
+            }
+            return () -> (long) DijkstraWorkspace.batchQuery(g, starts, ends, pool)[0];
+        });
+        add("p2p", family, n, "bidirectional", () -> {
+            Dijkstra dijkstra = new Dijkstra(graph(family, n, false));
+            int[] q = queries(n);
+            return cycle(q, dijkstra::bidirectionalDijkstra);
+        });
+        add("p2p", family, n, "astar-alt", () -> {
+            CSRGraph g = graph(family, n, false);
+            AStar astar = new AStar(g, AStar.alt(g, 0, n - 1, n / 2, n / 4));
+            int[] q = queries(n);
+            return cycle(q, astar::aStar);
+        });
+        add("p2p", family, n, "contraction", () -> {
+            ContractionHierarchy ch = ContractionHierarchy.build(graph(family, n, false));
+            int[] q = queries(n);
+            return cycle(q, ch::query);
+        });
+    }
+
+
+    // 64 x 64 distance table per operation
+    private void manyToMany(String family, int n) {
+        add("table", family, n, "dijkstra", () -> {
+            DistanceTable table = new DistanceTable(graph(family, n, false), pool);
+            int[] q = queries(n), sources = Arrays.copyOf(q, 64), targets = Arrays.copyOfRange(q, 64, 128);
+            return () -> (long) table.compute(sources, targets)[0];
+        });
+        add("table", family, n, "ch-buckets", () -> {
+            DistanceTable table = new DistanceTable(ContractionHierarchy.build(graph(family, n, false)), pool);
+            int[] q = queries(n), sources = Arrays.copyOf(q, 64), targets = Arrays.copyOfRange(q, 64, 128);
+            return () -> (long) table.compute(sources, targets)[0];
+        });
+    }
+
+
+    private interface Query {
+        double cost(int start, int end);
+    }
+
+    private static int[] queries(int n) {
+        Random random = new Random(5);
+        int[] q = new int[2 * 256];
+        for(int i = 0; i < q.length; i++)
+            q[i] = random.nextInt(n);
+        return q;
+    }
+
+    private static Operation cycle(int[] q, Query query) {
+        int[] next = {0};
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 2) % q.length;
+            return (long) query.cost(q[i], q[i + 1]);
+        };
+    }
+
+
+    private void components(String family, int n) {
+        add("scc", family, n, "tarjan", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> new TarjansSCC(g).getSccCount();
+        });
+        add("scc", family, n, "tarjan-recurse", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> new TarjansSCC(g).solveRecursive();
+        });
+        add("scc", family, n, "parallel", () -> {
+            CSRGraph g = graph(family, n, false);
+            return () -> new ParallelSCC(g, pool).getSccCount();
+        });
+    }
+
+
+    private void undirected(String family, int n) {
+        bridges(family, n);
+        add("bcc", family, n, "single-pass", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> new BiconnectedComponents(g).numOfBlocks();
+        });
+        add("mst", family, n, "lazy", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> nullSafe(new Prims(g).getMinCost());
+        });
+        add("mst", family, n, "eager-2", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> nullSafe(new Prims(g, 2).getMinCost());
+        });
+        add("mst", family, n, "eager-4", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> nullSafe(new Prims(g, 4).getMinCost());
+        });
+    }
+
+    private void bridges(String family, int n) {
+        add("bridges", family, n, "sequential", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> new Bridges(g).findBridges(Bridges.Engine.SEQUENTIAL).size();
+        });
+        add("bridges", family, n, "parallel", () -> {
+            CSRGraph g = graph(family, n, true);
+            return () -> new Bridges(g).findBridges(Bridges.Engine.PARALLEL).size();
+        });
+    }
+
+    private static long nullSafe(Long value) {
+        return value == null ? -1 : value;
+    }
+
+
+    // layered DAG for the orderings, random cycles for Euler
+    private void ordering(int n) {
+        add("topo", "dag", n, "topsort", () -> {
+            CSRGraph dag = graph("dag", n, false);
+            return () -> TopologicalSort.topSort(dag)[0];
+        });
+        add("topo", "dag", n, "dag-sssp", () -> {
+            CSRGraph dag = graph("dag", n, false);
+            return () -> (long) TopologicalSort.dagShortestPath(dag, 0)[n - 1];
+        });
+        add("euler", "cycle", n, "hierholzer", () -> {
+            CSRGraph g = graph("cycle", n, false);
+            return () -> new EulerianPath(g).getEulerianPath().length;
+        });
+    }
+
+
+    private void allPairs(int n) {
+        add("apsp", "dense", n, "floyd", () -> {
+            double[][] matrix = matrix(n);
+            return () -> {
+                FloydWarshall fw = new FloydWarshall(matrix);
+                fw.runFloydWarshall();
+                return fw.hashCode();
+            };
+        });
+        add("apsp", "dense", n, "blocked", () -> {
+            double[][] matrix = matrix(n);
+            return () -> (long) new BlockedFloydWarshall(matrix, 32, pool).getCost(0, n - 1);
+        });
+    }
+
+
+    // one Dijkstra per source into an off heap store | Johnson adds the potentials on negative costs
+    private void sparseAllPairs(int n) {
+        add("apsp", "grid", n, "store-double", () -> {
+            CSRGraph g = graph("grid", n, false);
+            return () -> store(g, ShortestPathStore.Precision.DOUBLE);
+        });
+        add("apsp", "grid", n, "store-float", () -> {
+            CSRGraph g = graph("grid", n, false);
+            return () -> store(g, ShortestPathStore.Precision.FLOAT);
+        });
+        add("apsp", "neg", n, "johnson", () -> {
+            CSRGraph g = graph("neg", n, false);
+            return () -> {
+                Johnson johnson = new Johnson(g, pool);
+                johnson.solve();
+                return (long) johnson.getCost(0, n - 1);
+            };
+        });
+        add("apsp", "neg", n, "blocked", () -> {
+            double[][] matrix = Johnson.toMatrix(graph("neg", n, false));
+            return () -> (long) new BlockedFloydWarshall(matrix, 32, pool).getCost(0, n - 1);
+        });
+    }
+
+    private long store(CSRGraph graph, ShortestPathStore.Precision precision) {
+        return (long) unchecked(() -> ShortestPathStore.fromGraph(graph, precision, null, pool)).getCost(0, graph.numOfNodes() - 1);
+    }
+
+
+    private void travellingSalesman(int n) {
+        add("tsp", "metric", n, "recursive", () -> {
+            double[][] matrix = GraphGenerator.completeMetric(n, n);
+            return () -> (long) new TSP(0, matrix).getTourCost();
+        });
+        add("tsp", "metric", n, "parallel", () -> {
+            double[][] matrix = GraphGenerator.completeMetric(n, n);
+            return () -> (long) new ParallelTSP(0, matrix, false, pool).getTourCost();
+        });
+        add("tsp", "metric", n, "parallel-float", () -> {
+            double[][] matrix = GraphGenerator.completeMetric(n, n);
+            return () -> (long) new ParallelTSP(0, matrix, true, pool).getTourCost();
+        });
+    }
+
+
+    private void add(String group, String family, int n, String engine, Supplier<Operation> setup) {
+        cases.add(new Case(group, family, n, engine, setup));
+    }
+
+
+    private void run(String filter) {
+        System.out.printf("%-40s %14s %10s %14s\n", "benchmark", "ops/s", "stddev", "B/op");
+        for(Case c : cases) {
+            if(!c.name.replaceAll("\\s+", " ").contains(filter))
+                continue;
+
+            Operation op = c.setup.get();
+            measure(op, WARMUP_NANOS);
+
+            double[] rates = new double[MEASURE_ITERATIONS];
+            long ops = 0, bytes = 0;
+            for(int i = 0; i < MEASURE_ITERATIONS; i++) {
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                long count = measure(op, ITERATION_NANOS);
+                rates[i] = count * 1e9 / (System.nanoTime() - start);
+                bytes += allocatedBytes() - allocated;
+                ops += count;
+            }
+
+            double mean = Arrays.stream(rates).average().orElse(0);
+            double variance = Arrays.stream(rates).map(r -> (r - mean) * (r - mean)).sum() / Math.max(1, MEASURE_ITERATIONS - 1);
+            System.out.printf("%-40s %14.1f %10.1f %14d\n", c.name, mean, Math.sqrt(variance), bytes / ops);
+        }
+    }
+
+
+    // summed over live threads | ForkJoin workers idle for less than a minute stay alive between samples
+    private long allocatedBytes() {
+        long sum = 0;
+        for(long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+            if(bytes > 0)
+                sum += bytes;
+        return sum;
+    }
+
+
+    // runs `op` until `nanos` passed, at least once, returns the number of runs
+    private static long measure(Operation op, long nanos) {
+        long count = 0, deadline = System.nanoTime() + nanos, acc = 0;
+        do {
+            acc += op.run();
+            count++;
+        } while(System.nanoTime() < deadline);
+        sink += acc;
+        return count;
+    }
+
+
+    /* ------------------------------------- families ------------------------------------- */
+
+    private CSRGraph graph(String family, int n, boolean undirected) {
+        return graphs.computeIfAbsent(family + ":" + n + ":" + undirected, key -> {
+            long seed = n * 31L + family.hashCode();
+            switch(family) {
+                case "gnm": return GraphGenerator.erdosRenyi(n, 4L * n, seed).build(pool, undirected);
+                case "rmat": return GraphGenerator.rmat(32 - Integer.numberOfLeadingZeros(n - 1), 8L * n, seed).build(pool, undirected);
+                case "neg": return Johnson.negativeGraph(n, 5 * n, seed);
+                case "dag": return GraphGenerator.layeredDag(n / 64, 64, 4, seed).build(pool);
+                case "cycle": return GraphGenerator.eulerian(n, 4, seed).build(pool);
+                case "grid":
+                case "road":
+                    CSRGraph.Builder builder = new CSRGraph.Builder(n);
+                    lattice(builder, n, new Random(seed), family.equals("road"));
+                    return builder.build();
+                case "chain":
+                    return chain(n, new Random(seed));
+                case "tree":
+                    return tree(n, new Random(seed));
+                default: throw new IllegalArgumentException("Unknown family " + family);
+            }
+        });
+    }
+
+
+    private static CSRGraph chain(int n, Random random) {
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int v = 0; v + 1 < n; v++)
+            builder.addEdge(v, v + 1, 1 + random.nextInt(COST_RANGE));
+        for(int i = 0; i < 3 * n; i++)
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(COST_RANGE));
+        return builder.build();
+    }
+
+    // random parent below every node, extra edges only reach the lower half
+    private static CSRGraph tree(int n, Random random) {
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int v = 1; v < n; v++)
+            builder.connectEdge(random.nextInt(v), v, 1 + random.nextInt(COST_RANGE));
+        for(int i = 0; i < 2 * n; i++)
+            builder.connectEdge(random.nextInt(n), random.nextInt(n / 2), 1 + random.nextInt(COST_RANGE));
+        return builder.build();
+    }
+
+
+    // W = ceil(sqrt(n)) columns, the last row may be partial | streets are two way in both views
+    private static void lattice(CSRGraph.Builder builder, int n, Random random, boolean road) {
+        int w = (int) Math.ceil(Math.sqrt(n));
+        for(int v = 0; v < n; v++) {
+            int r = v / w, c = v % w;
+            if(c + 1 < w && v + 1 < n)
+                street(builder, v, v + 1, r % 16 == 0, random, road);
+            if(v + w < n)
+                street(builder, v, v + w, c % 16 == 0, random, road);
+        }
+    }
+
+    private static void street(CSRGraph.Builder builder, int u, int v, boolean arterial, Random random, boolean road) {
+        int cost = 1 + random.nextInt(COST_RANGE);
+        if(road) {
+            // a missing street now and then, arterials never
+            if(!arterial && random.nextInt(20) == 0)
+                return;
+            cost = arterial ? 2 + random.nextInt(3) : 10 + random.nextInt(20);
+        }
+        builder.connectEdge(u, v, cost);
+    }
+
+
+    // dense random costs, 10% of the pairs have no edge
+    private static double[][] matrix(int n) {
+        Random random = new Random(n);
+        double[][] matrix = new double[n][n];
+        for(int i = 0; i < n; i++) {
+            for(int j = 0; j < n; j++)
+                matrix[i][j] = i == j ? 0 : random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : 1 + random.nextInt(COST_RANGE);
+        }
+        return matrix;
+    }
+
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        int scale = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        // the recursive engines (tarjan-recurse) go as deep as the graph is large
+        Thread thread = new Thread(null, () -> new Benchmark(scale).run(filter), "benchmark", 1L << 30);
+        thread.start();
+        try {
+            thread.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+OUTPUT  (java Benchmark 65536, one CPU)
+------------------------------
+benchmark                                         ops/s     stddev           B/op
+gen     rmat     65536  stream                     39.3        0.4            772
+gen     rmat     65536  build                      13.0        1.3        5364213
+io      gnm      65536  text                       90.8        3.9       11228269
+io      gnm      65536  binary                    341.5        8.8        5769262
+io      gnm      65536  image                    2631.4       19.5        2361008
+bfs     grid     65536  queue                     760.0       12.1        2680897
+bfs     grid     65536  direction-opt             175.5       35.4        4394965
+dfs     grid     65536  iterative                2133.8        2.6         327712
+bfs     gnm      65536  queue                     300.2        0.5        2643907
+bfs     gnm      65536  direction-opt             178.2       36.1        3786961
+dfs     gnm      65536  iterative                 483.5        2.1         327713
+bfs     rmat     65536  queue                     415.3        3.6        1458434
+bfs     rmat     65536  direction-opt             163.6        1.5        5826718
+dfs     rmat     65536  iterative                 618.2        2.7         327713
+sssp    grid     65536  lazy                       77.6        1.6        3446656
+sssp    grid     65536  eager-2                   108.9        4.2         852024
+sssp    grid     65536  eager-4                   111.4        9.0         852024
+sssp    grid     65536  delta-stepping            119.2       26.3         933172
+sssp    grid     65536  delta-1                   195.8        6.1        1783610
+sssp    grid     65536  delta-1000                116.9        2.2         240620
+sssp    gnm      65536  lazy                       48.6        2.7        3279737
+sssp    gnm      65536  eager-2                    60.3        2.2         852031
+sssp    gnm      65536  eager-4                    63.5        2.4         852030
+sssp    gnm      65536  delta-stepping            112.1       28.9         748586
+sssp    gnm      65536  delta-1                   165.1        3.2        1026560
+sssp    gnm      65536  delta-1000                 62.9        5.4         614485
+sssp    road     65536  lazy                       79.7        0.4        3130226
+sssp    road     65536  eager-2                   106.5        0.3         852024
+sssp    road     65536  eager-4                   109.1        0.8         852024
+sssp    road     65536  delta-stepping            254.1        4.2         866696
+sssp    road     65536  delta-1                   255.1        1.4        1003839
+sssp    road     65536  delta-1000                126.2        2.4          75199
+p2p     grid     65536  dijkstra                  219.5        1.7         852020
+p2p     grid     65536  workspace                 243.5       22.0              4
+p2p     grid     65536  batch-256                   1.0        0.0        4372618
+p2p     grid     65536  bidirectional             320.4       49.2        1572930
+p2p     grid     65536  astar-alt                 914.0       26.5         786465
+p2p     grid     65536  contraction             10560.1      949.2              0
+table   grid     65536  dijkstra                    1.9        0.0         973285
+table   grid     65536  ch-buckets                105.8        1.3        5059181
+p2p     road     65536  dijkstra                  205.0        4.8         852020
+p2p     road     65536  workspace                 230.8       13.9              4
+p2p     road     65536  batch-256                   0.9        0.0        4372618
+p2p     road     65536  bidirectional             383.7       52.3        1572930
+p2p     road     65536  astar-alt                 901.9       68.5         786465
+p2p     road     65536  contraction             47747.1       80.7              0
+table   road     65536  dijkstra                    1.7        0.0          99392
+table   road     65536  ch-buckets                454.2        1.6        3592546
+scc     gnm      65536  tarjan                    168.2       25.1        1638574
+scc     gnm      65536  tarjan-recurse            147.0        2.0        2505815
+scc     gnm      65536  parallel                   88.5        4.7        6888531
+scc     rmat     65536  tarjan                    202.1        0.6        1638573
+scc     rmat     65536  tarjan-recurse            188.2        2.9        2022829
+scc     rmat     65536  parallel                   87.8        1.9        6720356
+scc     chain    65536  tarjan                    402.0        0.7        1638570
+scc     chain    65536  tarjan-recurse            263.5        4.6        2505811
+scc     chain    65536  parallel                  104.5        0.9        7021186
+bridges grid     65536  sequential                423.8        3.7        4579898
+bridges grid     65536  parallel                  381.8       10.7        2622346
+bcc     grid     65536  single-pass               419.6        3.9        4579866
+mst     grid     65536  lazy                       45.3        0.7        5833667
+mst     grid     65536  eager-2                    54.1        4.1        5046392
+mst     grid     65536  eager-4                    61.6        1.5        5046391
+bridges gnm      65536  sequential                 84.2        2.7        7219354
+bridges gnm      65536  parallel                  109.0       39.1        3021563
+bcc     gnm      65536  single-pass                85.4        1.2        7219322
+mst     gnm      65536  lazy                       16.1        0.2       10890168
+mst     gnm      65536  eager-2                    33.9        0.2        5044915
+mst     gnm      65536  eager-4                    37.9        0.1        5044936
+bridges road     65536  sequential                251.4        4.7        5008275
+bridges road     65536  parallel                  330.3       49.7        2623835
+bcc     road     65536  single-pass               256.3        1.4        5008245
+mst     road     65536  lazy                       48.9        0.3        5685251
+mst     road     65536  eager-2                    57.2        0.8        5045384
+mst     road     65536  eager-4                    64.6        1.4        5045382
+bridges tree     65536  sequential                 89.5        0.8        6368066
+bridges tree     65536  parallel                  131.6        8.9        3417951
+topo    dag      65536  topsort                   465.8        5.2         852034
+topo    dag      65536  dag-sssp                  234.8        1.7        1376340
+euler   cycle    65536  hierholzer                 80.7        1.6        2883731
+*/
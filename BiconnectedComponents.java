@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* Biconnected Components - bridges, articulation points and blocks from one low-link DFS.
+The DFS runs on explicit int[] stacks (call stack + edge cursor per node), so long paths need no -Xss.
+For a tree edge at --> to, once `to` is finished:
+    lows[to] >  ids[at]  --> at - to is a bridge
+    lows[to] >= ids[at]  --> at separates the subtree of `to` (articulation point unless at is a root
+                             with a single child), edges pushed since at - to form one block
+Only the first edge back to the DFS parent is skipped, so parallel edges close a cycle.
+
+Block-cut tree: node b (0..numOfBlocks-1) for every block, node numOfBlocks + i for the
+i-th articulation point, edge between a block and every articulation point inside it.
+Nodes without edges belong to no block.
+
+time complexity: O(V + E), single pass
+*/
+
+class BiconnectedComponents {
+
+    private static final int UNVISITED = 0;
+
+    private final CSRGraph graph;
+    private final int n;
+    private boolean isSolved;
+
+    private List<Bridges.Pair> bridges;
+    private boolean[] isArticulation;
+    private int[] articulationPoints;
+    private int numOfBlocks;
+    private int[] blockOffsets, blockMembers;     // CSR: nodes of block b
+
+
+    // graph must hold both directions of every undirected edge (see CSRGraph.Builder#connectEdge)
+    public BiconnectedComponents(CSRGraph graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        this.graph = graph;
+        this.n = graph.numOfNodes();
+    }
+
+
+    public List<Bridges.Pair> getBridges() {
+        solve();
+        return bridges;
+    }
+
+    public boolean isArticulationPoint(int v) {
+        solve();
+        return isArticulation[v];
+    }
+
+    // ascending node ids
+    public int[] getArticulationPoints() {
+        solve();
+        return articulationPoints.clone();
+    }
+
+    public int numOfBlocks() {
+        solve();
+        return numOfBlocks;
+    }
+
+    public int[] blockMembers(int block) {
+        solve();
+        return Arrays.copyOfRange(blockMembers, blockOffsets[block], blockOffsets[block + 1]);
+    }
+
+
+    public CSRGraph blockCutTree() {
+        solve();
+        int[] cutIndex = new int[n];
+        for(int i = 0; i < articulationPoints.length; i++)
+            cutIndex[articulationPoints[i]] = i;
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(numOfBlocks + articulationPoints.length);
+        for(int b = 0; b < numOfBlocks; b++) {
+            for(int i = blockOffsets[b]; i < blockOffsets[b + 1]; i++) {
+                int v = blockMembers[i];
+                if(isArticulation[v])
+                    builder.connectEdge(b, numOfBlocks + cutIndex[v]);
+            }
+        }
+        return builder.build();
+    }
+
+
+    private void solve() {
+        if(isSolved)
+            return;
+
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] ids = new int[n], lows = new int[n];
+        int[] parent = new int[n];
+        int[] cursor = new int[n];
+        boolean[] skippedParent = new boolean[n];
+        int[] callStack = new int[n];
+        int[] edgeStack = new int[Math.max(1, graph.numOfEdges())];   // `from` side of DFS edges
+        int[] edgeTo = new int[edgeStack.length];
+        int[] blockStamp = new int[n];
+        Arrays.fill(blockStamp, -1);
+
+        bridges = new ArrayList<>();
+        isArticulation = new boolean[n];
+        IntList offsetsList = new IntList(), members = new IntList();
+        offsetsList.add(0);
+        int id = 0, edgeTop = 0;
+
+        for(int root = 0; root < n; root++) {
+            if(ids[root] != UNVISITED)
+                continue;
+
+            int depth = 0, rootChildren = 0;
+            callStack[depth++] = root;
+            parent[root] = -1;
+            ids[root] = lows[root] = ++id;
+            cursor[root] = offsets[root];
+
+            while(depth > 0) {
+                int at = callStack[depth - 1];
+
+                if(cursor[at] < offsets[at + 1]) {
+                    int to = targets[cursor[at]++];
+                    // as this is undirected graph | skip the edge back to parent, once
+                    if(to == parent[at] && !skippedParent[at]) {
+                        skippedParent[at] = true;
+                        continue;
+                    }
+
+                    if(ids[to] == UNVISITED) {
+                        edgeStack[edgeTop] = at;
+                        edgeTo[edgeTop++] = to;
+                        parent[to] = at;
+                        ids[to] = lows[to] = ++id;
+                        cursor[to] = offsets[to];
+                        callStack[depth++] = to;
+                        if(at == root)
+                            rootChildren++;
+                    }
+                    else if(ids[to] < ids[at]) {
+                        // back edge to an ancestor | pushed once, from the lower end
+                        edgeStack[edgeTop] = at;
+                        edgeTo[edgeTop++] = to;
+                        lows[at] = Math.min(lows[at], ids[to]);
+                    }
+                    continue;
+                }
+
+                // `at` is finished | same as return of recursive dfs
+                depth--;
+                int p = parent[at];
+                if(p == -1)
+                    continue;
+
+                lows[p] = Math.min(lows[p], lows[at]);
+                if(ids[p] < lows[at])
+                    bridges.add(new Bridges.Pair(p, at));
+
+                if(ids[p] <= lows[at]) {
+                    if(p != root)
+                        isArticulation[p] = true;
+
+                    // pop the block up to and including tree edge p - at
+                    int block = numOfBlocks++;
+                    while(true) {
+                        int u = edgeStack[--edgeTop], v = edgeTo[edgeTop];
+                        if(blockStamp[u] != block) {
+                            blockStamp[u] = block;
+                            members.add(u);
+                        }
+                        if(blockStamp[v] != block) {
+                            blockStamp[v] = block;
+                            members.add(v);
+                        }
+                        if(u == p && v == at)
+                            break;
+                    }
+                    offsetsList.add(members.size);
+                }
+            }
+
+            if(rootChildren > 1)
+                isArticulation[root] = true;
+        }
+
+        blockOffsets = Arrays.copyOf(offsetsList.items, offsetsList.size);
+        blockMembers = Arrays.copyOf(members.items, members.size);
+
+        int count = 0;
+        for(int v = 0; v < n; v++)
+            if(isArticulation[v])
+                count++;
+        articulationPoints = new int[count];
+        count = 0;
+        for(int v = 0; v < n; v++)
+            if(isArticulation[v])
+                articulationPoints[count++] = v;
+
+        isSolved = true;
+    }
+
+
+    // growable int array
+    private static class IntList {
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int value) {
+            if(size == items.length)
+                items = Arrays.copyOf(items, size << 1);
+            items[size++] = value;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        // same graph as Bridges / ArticulationPoints
+        final int n = 9;
+        CSRGraph graph = new CSRGraph.Builder(n)
+            .connectEdge(0, 1).connectEdge(0, 2).connectEdge(1, 2).connectEdge(2, 3).connectEdge(3, 4)
+            .connectEdge(2, 5).connectEdge(5, 6).connectEdge(6, 7).connectEdge(7, 8).connectEdge(8, 5)
+            .build();
+
+        BiconnectedComponents bcc = new BiconnectedComponents(graph);
+
+        StringBuilder sb = new StringBuilder();
+        for(Bridges.Pair p : bcc.getBridges())
+            sb.append(String.format("[%d - %d] ", p.node1(), p.node2()));
+        System.out.println("Bridges:- " + sb.toString().trim());
+        System.out.println("Articulation Points:- " + Arrays.toString(bcc.getArticulationPoints()));
+
+        for(int b = 0; b < bcc.numOfBlocks(); b++)
+            System.out.println("Block " + b + ":- " + Arrays.toString(bcc.blockMembers(b)));
+
+        CSRGraph tree = bcc.blockCutTree();
+        int[] offsets = tree.offsets(), targets = tree.targets();
+        int blocks = bcc.numOfBlocks();
+        int[] cuts = bcc.getArticulationPoints();
+        for(int i = 0; i < cuts.length; i++) {
+            int node = blocks + i;
+            System.out.println("cut vertex " + cuts[i] + " joins blocks "
+                + Arrays.toString(Arrays.copyOfRange(targets, offsets[node], offsets[node + 1])));
+        }
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+Bridges:- [3 - 4] [2 - 3] [2 - 5]
+Articulation Points:- [2, 3, 5]
+Block 0:- [3, 4]
+Block 1:- [2, 3]
+Block 2:- [8, 5, 7, 6]
+Block 3:- [2, 5]
+Block 4:- [2, 0, 1]
+cut vertex 2 joins blocks [1, 3, 4]
+cut vertex 3 joins blocks [0, 1]
+cut vertex 5 joins blocks [2, 3]
+*/
@@ -0,0 +1,283 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/* Blocked (tiled) Floyd Warshall - All-Pairs Shortest Path over a flat row-major double[]
+with an int[] successor matrix instead of double[][] + Integer[][].
+
+The n x n matrix is cut into B x B tiles. For every k-block:
+  phase 1: the diagonal tile (kb, kb) runs plain Floyd Warshall on itself
+  phase 2: tiles in row kb and column kb only depend on the diagonal tile  --> parallel
+  phase 3: every other tile (i, j) only depends on (i, kb) and (kb, j)     --> parallel
+A tile of doubles fits in L1/L2, so the k loop keeps re-reading cached rows instead of
+streaming the whole matrix from memory V times.
+
+Negative cycles: after the main pass, dist[k][k] < 0 iff k sits on (or reaches and returns from)
+a negative cycle. dist[i][j] is -inf iff i reaches such a k and k reaches j, so only one
+representative k per negative strongly connected group is scanned instead of a second O(V^3) pass.
+
+time complexity O(V^3 / P), memory 12 * V^2 bytes
+*/
+
+class BlockedFloydWarshall {
+
+    static final int NO_NEXT = -1;
+    static final int NEGATIVE_CYCLE = -2;
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final int n, blockSize, numOfBlocks;
+    private final double[] dist;    // dist[i * n + j]
+    private final int[] next;       // next[i * n + j] --> node after i on shortest path i -> j
+    private final ForkJoinPool pool;
+    private boolean isSolved;
+
+
+    public BlockedFloydWarshall(double[][] matrix) {
+        this(matrix, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public BlockedFloydWarshall(double[][] matrix, int blockSize, ForkJoinPool pool) {
+        if(matrix == null)
+            throw new IllegalArgumentException("Matrix cannot be null");
+        if(blockSize <= 0)
+            throw new IllegalArgumentException("Block size must be positive");
+        if(pool == null)
+            throw new IllegalArgumentException("Pool cannot be null");
+        if((long) matrix.length * matrix.length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many nodes for a flat matrix");
+
+        this.n = matrix.length;
+        this.blockSize = blockSize;
+        this.numOfBlocks = (n + blockSize - 1) / blockSize;
+        this.pool = pool;
+        this.dist = new double[n * n];
+        this.next = new int[n * n];
+
+        for(int i = 0; i < n; i++) {
+            if(matrix[i].length != n)
+                throw new IllegalArgumentException("Matrix must be Square");
+
+            for(int j = 0; j < n; j++) {
+                dist[i * n + j] = matrix[i][j];
+                next[i * n + j] = matrix[i][j] != Double.POSITIVE_INFINITY ? j : NO_NEXT;
+            }
+        }
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    // row-major results, shared with the solver | treat as read-only
+    double[] distances() {
+        solve();
+        return dist;
+    }
+
+    int[] successors() {
+        solve();
+        return next;
+    }
+
+
+    public double getCost(int start, int end) {
+        solve();
+        return dist[start * n + end];
+    }
+
+
+    public synchronized void solve() {
+        if(isSolved)
+            return;
+
+        for(int kb = 0; kb < numOfBlocks; kb++) {
+            final int k = kb;
+
+            // phase 1: diagonal tile
+            relaxTile(k, k, k);
+
+            // phase 2: row kb and column kb, the diagonal tile excluded
+            pool.invoke(new ParallelRange(0, 2 * numOfBlocks, 1, (from, to) -> {
+                for(int t = from; t < to; t++) {
+                    int b = t >> 1;
+                    if(b == k)
+                        continue;
+                    if((t & 1) == 0)
+                        relaxTile(k, k, b);
+                    else
+                        relaxTile(k, b, k);
+                }
+            }));
+
+            // phase 3: everything else
+            pool.invoke(new ParallelRange(0, numOfBlocks * numOfBlocks, 1, (from, to) -> {
+                for(int t = from; t < to; t++) {
+                    int ib = t / numOfBlocks, jb = t % numOfBlocks;
+                    if(ib != k && jb != k)
+                        relaxTile(k, ib, jb);
+                }
+            }));
+        }
+
+        markNegativeCycles();
+        isSolved = true;
+    }
+
+
+    // Floyd Warshall restricted to k in block kb, i in block ib, j in block jb
+    private void relaxTile(int kb, int ib, int jb) {
+        int k0 = kb * blockSize, k1 = Math.min(k0 + blockSize, n);
+        int i0 = ib * blockSize, i1 = Math.min(i0 + blockSize, n);
+        int j0 = jb * blockSize, j1 = Math.min(j0 + blockSize, n);
+
+        for(int k = k0; k < k1; k++) {
+            int kRow = k * n;
+            for(int i = i0; i < i1; i++) {
+                int iRow = i * n;
+                double dik = dist[iRow + k];
+                if(dik == Double.POSITIVE_INFINITY)
+                    continue;
+
+                int nik = next[iRow + k];
+                for(int j = j0; j < j1; j++) {
+                    double newDist = dik + dist[kRow + j];
+                    if(newDist < dist[iRow + j]) {
+                        dist[iRow + j] = newDist;     // calculate low cost path
+                        next[iRow + j] = nik;
+                    }
+                }
+            }
+        }
+    }
+
+
+    private void markNegativeCycles() {
+        List<Integer> reps = new ArrayList<>();
+
+        for(int k = 0; k < n; k++) {
+            if(dist[k * n + k] >= 0)
+                continue;
+
+            // k and an earlier representative reach each other --> same marking, skip
+            boolean covered = false;
+            for(int r : reps) {
+                if(dist[r * n + k] != Double.POSITIVE_INFINITY && dist[k * n + r] != Double.POSITIVE_INFINITY) {
+                    covered = true;
+                    break;
+                }
+            }
+            if(!covered)
+                reps.add(k);
+        }
+
+        if(reps.isEmpty())
+            return;
+
+        int[] negative = reps.stream().mapToInt(Integer::intValue).toArray();
+        pool.invoke(new ParallelRange(0, n, ParallelRange.grainFor(n, pool.getParallelism()), (from, to) -> {
+            for(int i = from; i < to; i++) {
+                int iRow = i * n;
+                for(int k : negative) {
+                    if(dist[iRow + k] == Double.POSITIVE_INFINITY)
+                        continue;
+
+                    int kRow = k * n;
+                    for(int j = 0; j < n; j++) {
+                        if(dist[kRow + j] != Double.POSITIVE_INFINITY) {
+                            dist[iRow + j] = Double.NEGATIVE_INFINITY;
+                            next[iRow + j] = NEGATIVE_CYCLE;
+                        }
+                    }
+                }
+            }
+        }));
+    }
+
+
+    // null --> negative cycle on the way, empty --> no route
+    public List<Integer> reconstructPath(int start, int end) {
+        solve();
+
+        List<Integer> path = new ArrayList<>();
+        if(dist[start * n + end] == Double.POSITIVE_INFINITY)
+            return path;
+
+        int at = start;
+        for(; at != end; at = next[at * n + end]) {
+            if(at == NEGATIVE_CYCLE)
+                return null;
+            path.add(at);
+        }
+
+        if(next[at * n + end] == NEGATIVE_CYCLE)
+            return null;
+
+        path.add(end);
+        return path;
+    }
+
+
+    private static double[][] initGraph(int n) {
+        double[][] matrix = new double[n][n];
+        for(int i = 0; i < n; i++) {
+            Arrays.fill(matrix[i], Double.POSITIVE_INFINITY);
+            matrix[i][i] = 0;   // self edge cost = 0
+        }
+
+        return matrix;
+    }
+
+    public static void main(String[] args) {
+        final int n = 7;
+        double[][] m = initGraph(n);
+
+        m[0][1] = 2;
+        m[0][2] = 5;
+        m[0][6] = 10;
+        m[1][2] = 2;
+        m[1][4] = 11;
+        m[2][6] = 2;
+        m[6][5] = 11;
+        m[4][5] = 1;
+        m[5][4] = -2;
+
+        // tiny block size so the demo graph is split into several tiles
+        BlockedFloydWarshall fw = new BlockedFloydWarshall(m, 3, ForkJoinPool.commonPool());
+
+        for(int j = 0; j < n; j++)
+            System.out.printf("node %d --> %d == %.2f\n", 0, j, fw.getCost(0, j));
+
+        for(int j = 0; j < n; j++) {
+            List<Integer> path = fw.reconstructPath(0, j);
+            String str;
+            if(path == null)
+                str = ": ∞ solutions! (negative cycle)";
+            else if(path.isEmpty())
+                str = ": doesn't have route";
+            else
+                str = " : [" + path.stream().map(Object::toString).collect(Collectors.joining(" -> ")) + "]";
+
+            System.out.printf("node %d to %d %s\n", 0, j, str);
+        }
+    }
+}
+
+/*
+OUTPUT
+---------------------------
+node 0 --> 0 == 0.00
+node 0 --> 1 == 2.00
+node 0 --> 2 == 4.00
+node 0 --> 3 == Infinity
+node 0 --> 4 == -Infinity
+node 0 --> 5 == -Infinity
+node 0 --> 6 == 6.00
+node 0 to 0  : [0]
+node 0 to 1  : [0 -> 1]
+node 0 to 2  : [0 -> 1 -> 2]
+node 0 to 3 : doesn't have route
+node 0 to 4 : ∞ solutions! (negative cycle)
+node 0 to 5 : ∞ solutions! (negative cycle)
+node 0 to 6  : [0 -> 1 -> 2 -> 6]
+*/
@@ -1,84 +1,81 @@
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /* Bridge & Articulation Points: weak links, bottleneck or vulnerabilities in graph
  DFS labelling nodes with increasing id as we go.
  Keep track of id and 'low-link' value.
  Bridges will be found at --> id of the edge we are coming from < low link value of edge going to || id(edge.from) < low_link(edge.to)
  Low link value = smallest/lowest id reachable from that node when doing DFS including itself.
+ The DFS itself lives in BiconnectedComponents (iterative, also yields articulation points and blocks).
+
+ Engines
+  - SEQUENTIAL --> low-link DFS, bridges in DFS finish order
+  - PARALLEL   --> ParallelBridges, spanning tree + pre order intervals on a ForkJoinPool,
+                   same bridges as (tree parent, child) pairs in BFS order
 
  time complexity O(V+E)
 */
 
 class Bridges {
 
+    enum Engine { SEQUENTIAL, PARALLEL }
+
     static class Pair {
         private int node1, node2;
         public Pair(int node1, int node2) {
             this.node1 = node1;
             this.node2 = node2;
         }
+
+        public int node1() { return node1; }
+
+        public int node2() { return node2; }
     }
 
-    private List<List<Integer>> graph;
-    private int n, id;
-    private int[] ids, lows;
-    private boolean[] visited;
+    private CSRGraph graph;
     private boolean isSolved;
+    private Engine solvedWith;
     private List<Pair> bridges;
 
 
     public Bridges(List<List<Integer>> graph, int n) {
+        this(CSRGraph.fromAdjacency(graph, n));
+    }
+
+    // graph must hold both directions of every undirected edge (see CSRGraph.Builder#connectEdge)
+    public Bridges(CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph cannot be null");
         
         this.graph = graph;
-        this.n = n;
     }
 
 
+    // one iterative low-link pass, see BiconnectedComponents
     private List<Pair> findBridges() {
-        if(isSolved)
-            return bridges;
-        
-        id = 0;
-        lows = new int[n];
-        ids = new int[n];
-        visited = new boolean[n];
+        return findBridges(Engine.SEQUENTIAL);
+    }
 
-        bridges = new ArrayList<>();
 
-        for(int i = 0; i < n; i++) {
-            if(!visited[i])
-                dfs(i, -1); // -1: parent | their is no prev node
-        }
+    List<Pair> findBridges(Engine engine) {
+        if(isSolved && solvedWith == engine)
+            return bridges;
+
+        if(engine == Engine.PARALLEL)
+            bridges = new ParallelBridges(graph, ForkJoinPool.commonPool()).findBridges();
+        else
+            bridges = new BiconnectedComponents(graph).getBridges();
 
+        solvedWith = engine;
         isSolved = true;
         return bridges;
     }
 
 
-    private void dfs(int at, int parent) {
-        visited[at] = true;
-        lows[at] = ids[at] = ++id;
-
-        for(Integer to : graph.get(at)) {
-            if(to == parent)    // as this is undirected graph | their is edge to parent node
-                continue;
-            if(!visited[to]) {
-                dfs(to, at);
-                lows[at] = Math.min(lows[at], lows[to]); //
-                if(ids[at] < lows[to]) {
-                    bridges.add(new Pair(at, to));
-                }
-            }
-            else {
-                lows[at] = Math.min(lows[at], ids[to]); //
-            }
-        }
-    }
-
-
     private static List<List<Integer>> initGraph (int n) {
         List<List<Integer>> graph = new ArrayList<>(n);
         for(int i = 0; i < n; i++)
@@ -116,6 +113,35 @@ class Bridges {
         for(Pair p : bridges) {
             System.out.printf("nodes [%d - %d]\n", p.node1, p.node2);
         }
+
+        // random spanning tree plus random extra edges | some tree edges stay bridges
+        crossCheck();
+    }
+
+
+    // both engines on one graph | timings are in Benchmark (java Benchmark bridges)
+    private static void crossCheck() {
+        final int n = 10_000, extra = 20_000;
+        Random random = new Random(19);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int v = 1; v < n; v++)
+            builder.connectEdge(random.nextInt(v), v);
+        for(int i = 0; i < extra; i++)
+            builder.connectEdge(random.nextInt(n), random.nextInt(n / 2));
+        CSRGraph graph = builder.build();
+
+        List<Pair> sequential = new Bridges(graph).findBridges(Engine.SEQUENTIAL);
+        List<Pair> parallel = new Bridges(graph).findBridges(Engine.PARALLEL);
+        System.out.printf("%d bridges, same set for both engines: %b\n", sequential.size(),
+            asSet(sequential).equals(asSet(parallel)));
+    }
+
+
+    private static Set<Long> asSet(List<Pair> pairs) {
+        Set<Long> set = new HashSet<>();
+        for(Pair p : pairs)
+            set.add(((long) Math.min(p.node1, p.node2) << 32) | Math.max(p.node1, p.node2));
+        return set;
     }
 }
 
@@ -127,4 +153,5 @@ Bridge between nodes are:-
 nodes [3 - 4]
 nodes [2 - 3]
 nodes [2 - 5]
+522 bridges, same set for both engines: true
 */
\ No newline at end of file
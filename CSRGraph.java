@@ -0,0 +1,207 @@
+import java.util.Arrays;
+import java.util.List;
+
+/* Compressed Sparse Row (CSR) graph - immutable adjacency store over primitive arrays.
+Edges of vertex `v` live in targets[offsets[v] .. offsets[v + 1]) with matching costs[].
+Compared to List<List<Edge>> there is no object header per edge and no pointer chasing,
+so relaxation loops just walk two int arrays.
+
+memory: 4 * (V + 1) + 8 * E bytes
+build time complexity: O(V + E) (counting sort on `from`, keeps insertion order per vertex)
+*/
+
+class CSRGraph {
+
+    private final int n, m;
+    private final int[] offsets;    // offsets[v] --> index of first edge of v, offsets[n] == m
+    private final int[] targets;    // targets[e] --> `to` vertex of edge e
+    private final int[] costs;      // costs[e]   --> cost of edge e
+
+
+    private CSRGraph(int n, int[] offsets, int[] targets, int[] costs) {
+        this.n = n;
+        this.m = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.costs = costs;
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    public int numOfEdges() { return m; }
+
+    public int degree(int v) { return offsets[v + 1] - offsets[v]; }
+
+    // returned arrays are shared with the graph, callers must treat them as read-only
+    public int[] offsets() { return offsets; }
+
+    public int[] targets() { return targets; }
+
+    public int[] costs() { return costs; }
+
+
+    // transposed graph | edge u -> v becomes v -> u with the same cost, O(V + E)
+    public CSRGraph reverse() {
+        int[] revOffsets = new int[n + 1];
+        for(int e = 0; e < m; e++)
+            revOffsets[targets[e] + 1]++;
+
+        for(int v = 0; v < n; v++)
+            revOffsets[v + 1] += revOffsets[v];
+
+        int[] revTargets = new int[m];
+        int[] revCosts = new int[m];
+        int[] cursor = Arrays.copyOf(revOffsets, n);
+
+        for(int from = 0; from < n; from++) {
+            for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int at = cursor[targets[e]]++;
+                revTargets[at] = from;
+                revCosts[at] = costs[e];
+            }
+        }
+
+        return new CSRGraph(n, revOffsets, revTargets, revCosts);
+    }
+
+
+    // collects edges in the same `addEdge` / `connectEdge` style as the List<List<Edge>> graphs
+    static class Builder {
+        private final int n;
+        private int m;
+        private int[] from, to, cost;
+
+        public Builder(int n) {
+            if(n < 0)
+                throw new IllegalArgumentException("Number of nodes cannot be negative");
+
+            this.n = n;
+            this.from = new int[16];
+            this.to = new int[16];
+            this.cost = new int[16];
+        }
+
+
+        // directed edge `from` --> `to`
+        public Builder addEdge(int from, int to, int cost) {
+            if(from < 0 || from >= n || to < 0 || to >= n)
+                throw new IllegalArgumentException("Edge " + from + " -> " + to + " is out of range");
+
+            if(m == this.from.length) {
+                int capacity = m << 1;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+                this.cost = Arrays.copyOf(this.cost, capacity);
+            }
+
+            this.from[m] = from;
+            this.to[m] = to;
+            this.cost[m] = cost;
+            m++;
+            return this;
+        }
+
+        // unweighted directed edge | cost 1 same as BFS
+        public Builder addEdge(int from, int to) {
+            return addEdge(from, to, 1);
+        }
+
+        // undirected edge
+        public Builder connectEdge(int from, int to, int cost) {
+            addEdge(from, to, cost);
+            return addEdge(to, from, cost);
+        }
+
+        public Builder connectEdge(int from, int to) {
+            return connectEdge(from, to, 1);
+        }
+
+
+        public CSRGraph build() {
+            return fromEdges(n, m, from, to, cost);
+        }
+    }
+
+
+    // first m entries of the three arrays are edges, no per edge objects or copies on the way in
+    static CSRGraph fromEdges(int n, int m, int[] from, int[] to, int[] cost) {
+        int[] offsets = new int[n + 1];
+        for(int i = 0; i < m; i++)
+            offsets[from[i] + 1]++;
+
+        for(int v = 0; v < n; v++)
+            offsets[v + 1] += offsets[v];
+
+        int[] targets = new int[m];
+        int[] costs = new int[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+
+        // stable placement | edges keep the order they were added in
+        for(int i = 0; i < m; i++) {
+            int at = cursor[from[i]]++;
+            targets[at] = to[i];
+            costs[at] = cost[i];
+        }
+
+        return new CSRGraph(n, offsets, targets, costs);
+    }
+
+
+    // List<List<Integer>> adjacency lists of the unweighted algorithms, every edge costs 1
+    // edge order per node is preserved, so traversals visit neighbours in the same order as before
+    static CSRGraph fromAdjacency(List<List<Integer>> graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        return fromAdjacency(graph, graph.size());
+    }
+
+    // n nodes, lists past graph.size() are nodes without edges
+    static CSRGraph fromAdjacency(List<List<Integer>> graph, int n) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        Builder builder = new Builder(n);
+        for(int from = 0; from < graph.size(); from++) {
+            for(int to : graph.get(from))
+                builder.addEdge(from, to);
+        }
+
+        return builder.build();
+    }
+
+
+    // wraps ready CSR arrays (e.g. a loaded graph image) | only the shape is checked
+    static CSRGraph fromArrays(int n, int[] offsets, int[] targets, int[] costs) {
+        if(offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length || costs.length != targets.length)
+            throw new IllegalArgumentException("Arrays do not form a CSR graph");
+
+        return new CSRGraph(n, offsets, targets, costs);
+    }
+
+
+    public static void main(String[] args) {
+        final int n = 5;
+        CSRGraph graph = new CSRGraph.Builder(n)
+            .addEdge(0, 1, 4)
+            .addEdge(0, 2, 1)
+            .addEdge(1, 3, 1)
+            .addEdge(2, 1, 2)
+            .addEdge(2, 3, 5)
+            .addEdge(3, 4, 3)
+            .build();
+
+        System.out.println("offsets: " + Arrays.toString(graph.offsets()));
+        System.out.println("targets: " + Arrays.toString(graph.targets()));
+        System.out.println("costs:   " + Arrays.toString(graph.costs()));
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+offsets: [0, 2, 3, 5, 6, 6]
+targets: [1, 2, 3, 1, 3, 4]
+costs:   [4, 1, 1, 2, 5, 3]
+*/
@@ -0,0 +1,801 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/* Contraction Hierarchies (CH) - preprocessing based point to point shortest path
+for directed graphs with `non-negative` edge weights.
+
+Preprocessing: nodes are contracted one by one, cheapest first. Priority is
+4 * edge difference + 2 * already contracted neighbours + level, refreshed for the neighbours
+of every contracted node and re-evaluated lazily when polled. Contracting v removes it from
+the remaining graph; for every u -> v -> w a local witness search from u that avoids v decides
+whether a shortcut u -> w (cost u->v + v->w) is needed to keep distances.
+
+Query: every edge (original or shortcut) goes from lower to higher rank (upward) or the opposite.
+Forward search from `start` only uses upward edges, backward search from `end` only uses
+downward edges reversed. Both meet at the highest ranked node of a shortest path, so each side
+settles a few hundred nodes instead of a large share of the graph.
+
+Many to many (buckets): one backward search per target stores (target, dist) in a bucket at every
+node it settles, then one forward search per source scans the buckets of the nodes it settles,
+min over dist forward + bucket dist is the cost to that target. |S| + |T| small searches instead
+of |S| * |T| queries, both phases run in parallel over a ForkJoinPool.
+
+Shortcuts remember the two edges they replace, unpacking restores the original node sequence.
+The hierarchy can be saved to a file and loaded back without contracting again.
+*/
+
+class ContractionHierarchy {
+
+    private static final int NONE = -1;
+    private static final int FILE_MAGIC = 0x43480001;    // "CH" + version 1
+    private static final int HEAP_ARITY = 4;
+    // give up the witness search and add the shortcut | priorities only need an estimate
+    private static final int MAX_WITNESS_SETTLED = 500;
+    private static final int MAX_SIMULATED_WITNESS_SETTLED = 50;
+
+    private final int n;
+    private int[] rank;                  // contraction order of every node
+
+    // every edge of the hierarchy, original edges first then shortcuts
+    private int numOfEdges;
+    private int[] edgeFrom, edgeTo, edgeCost;
+    private int[] child1, child2;        // replaced edges of a shortcut, NONE for original edges
+
+    // search graphs | edge ids grouped by node, CSR style
+    private int[] upOffsets, upEdges;       // u -> w with rank[w] > rank[u], grouped by u
+    private int[] downOffsets, downEdges;   // u -> w with rank[u] > rank[w], grouped by w
+
+    // query workspace | epoch stamps make resetting O(touched) instead of O(V)
+    private double[] distForward, distBackward;
+    private int[] prevForward, prevBackward;    // edge ids
+    private int[] seenForward, seenBackward;
+    private int epoch;
+    private MinIndexedDHeap forwardHeap, backwardHeap;
+    private int meetingNode = NONE;
+
+
+    private ContractionHierarchy(int n) {
+        this.n = n;
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    public int numOfShortcuts() {
+        int shortcuts = 0;
+        for(int e = 0; e < numOfEdges; e++)
+            if(child1[e] != NONE)
+                shortcuts++;
+        return shortcuts;
+    }
+
+
+    // contracts all nodes of the graph | O(preprocessing) is graph dependent, roads take seconds/minutes
+    public static ContractionHierarchy build(CSRGraph graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        ContractionHierarchy ch = new ContractionHierarchy(graph.numOfNodes());
+        new Contractor(ch, graph).run();
+        ch.buildSearchGraphs();
+        return ch;
+    }
+
+
+    // shortest path cost `start` --> `end`, +inf when not reachable
+    public double query(int start, int end) {
+        if(forwardHeap == null)
+            initWorkspace();
+
+        if(++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(seenForward, 0);
+            Arrays.fill(seenBackward, 0);
+            epoch = 1;
+        }
+
+        forwardHeap.clear();
+        backwardHeap.clear();
+        touch(start, true, 0.0, NONE);
+        touch(end, false, 0.0, NONE);
+        forwardHeap.insert(start, 0.0);
+        backwardHeap.insert(end, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        meetingNode = NONE;
+        boolean forward = true;
+
+        while(true) {
+            boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.valueOf(forwardHeap.peekMin()) < best;
+            boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.valueOf(backwardHeap.peekMin()) < best;
+            if(!forwardOpen && !backwardOpen)
+                break;
+
+            // alternate sides, keep going on one side once the other is done
+            if(!forwardOpen)
+                forward = false;
+            else if(!backwardOpen)
+                forward = true;
+
+            if(forward) {
+                int at = forwardHeap.pollMin();
+                if(seenBackward[at] == epoch && distForward[at] + distBackward[at] < best) {
+                    best = distForward[at] + distBackward[at];
+                    meetingNode = at;
+                }
+                for(int i = upOffsets[at]; i < upOffsets[at + 1]; i++) {
+                    int e = upEdges[i];
+                    relax(edgeTo[e], true, distForward[at] + edgeCost[e], e);
+                }
+            }
+            else {
+                int at = backwardHeap.pollMin();
+                if(seenForward[at] == epoch && distForward[at] + distBackward[at] < best) {
+                    best = distForward[at] + distBackward[at];
+                    meetingNode = at;
+                }
+                for(int i = downOffsets[at]; i < downOffsets[at + 1]; i++) {
+                    int e = downEdges[i];
+                    relax(edgeFrom[e], false, distBackward[at] + edgeCost[e], e);
+                }
+            }
+
+            forward = !forward;
+        }
+
+        return best;
+    }
+
+
+    // same shape as Dijkstra.reconstructPath | empty list when `end` is not reachable
+    List<Integer> reconstructPath(int start, int end) {
+
+        List<Integer> path = new ArrayList<>();
+        double distance = this.query(start, end);
+        if(distance == Double.POSITIVE_INFINITY)
+            return path;
+
+        // upward edges start -> meeting node, collected backwards
+        List<Integer> upward = new ArrayList<>();
+        for(int at = meetingNode; prevForward[at] != NONE; at = edgeFrom[prevForward[at]])
+            upward.add(prevForward[at]);
+
+        path.add(start);
+        for(int i = upward.size() - 1; i >= 0; i--)
+            unpack(upward.get(i), path);
+
+        // downward edges meeting node -> end
+        for(int at = meetingNode; prevBackward[at] != NONE; at = edgeTo[prevBackward[at]])
+            unpack(prevBackward[at], path);
+
+        return path;
+    }
+
+
+    // appends the original nodes after edgeFrom[e] up to edgeTo[e] | explicit stack, shortcuts nest deep
+    private void unpack(int edge, List<Integer> path) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = edge;
+
+        while(top > 0) {
+            int e = stack[--top];
+            if(child1[e] == NONE) {
+                path.add(edgeTo[e]);
+                continue;
+            }
+
+            if(top + 2 > stack.length)
+                stack = Arrays.copyOf(stack, stack.length << 1);
+            stack[top++] = child2[e];
+            stack[top++] = child1[e];
+        }
+    }
+
+
+    private void relax(int to, boolean forward, double newDist, int edge) {
+        int[] seen = forward ? seenForward : seenBackward;
+        double[] dist = forward ? distForward : distBackward;
+        MinIndexedDHeap pq = forward ? forwardHeap : backwardHeap;
+
+        if(seen[to] != epoch) {
+            touch(to, forward, newDist, edge);
+            pq.insert(to, newDist);
+        }
+        else if(newDist < dist[to]) {
+            dist[to] = newDist;
+            (forward ? prevForward : prevBackward)[to] = edge;
+            if(pq.contains(to))
+                pq.decreaseKey(to, newDist);
+        }
+    }
+
+
+    private void touch(int node, boolean forward, double d, int edge) {
+        if(forward) {
+            seenForward[node] = epoch;
+            distForward[node] = d;
+            prevForward[node] = edge;
+        }
+        else {
+            seenBackward[node] = epoch;
+            distBackward[node] = d;
+            prevBackward[node] = edge;
+        }
+    }
+
+
+    private void initWorkspace() {
+        int size = Math.max(1, n);
+        distForward = new double[size];
+        distBackward = new double[size];
+        prevForward = new int[size];
+        prevBackward = new int[size];
+        seenForward = new int[size];
+        seenBackward = new int[size];
+        forwardHeap = new MinIndexedDHeap(HEAP_ARITY, size);
+        backwardHeap = new MinIndexedDHeap(HEAP_ARITY, size);
+        epoch = 0;
+    }
+
+
+    // table[i * targets.length + j] = cost sources[i] --> targets[j], +inf when not reachable
+    double[] distanceTable(int[] sources, int[] targets, ForkJoinPool pool, double[] table) {
+        final int numOfTargets = targets.length;
+        if(table.length != DistanceTable.tableSize(sources, targets))
+            throw new IllegalArgumentException("Table must hold sources.length * targets.length entries");
+
+        // backward phase | search space of every target, kept per target so threads never share a bucket
+        int[][] spaceNodes = new int[numOfTargets][];
+        double[][] spaceDist = new double[numOfTargets][];
+        ParallelRange.Scratch<UpwardSearch> searches = new ParallelRange.Scratch<>(() -> new UpwardSearch(this));
+        pool.invoke(new ParallelRange(0, numOfTargets, ParallelRange.grainFor(numOfTargets, pool.getParallelism()), (lo, hi) -> {
+            UpwardSearch search = searches.take();
+            for(int j = lo; j < hi; j++) {
+                search.run(targets[j], false);
+                spaceNodes[j] = Arrays.copyOf(search.settled, search.numOfSettled);
+                spaceDist[j] = new double[search.numOfSettled];
+                for(int k = 0; k < search.numOfSettled; k++)
+                    spaceDist[j][k] = search.dist[spaceNodes[j][k]];
+            }
+            searches.release(search);
+        }));
+
+        // buckets grouped by node, CSR style
+        int[] bucketOffsets = new int[n + 1];
+        for(int[] space : spaceNodes)
+            for(int v : space)
+                bucketOffsets[v + 1]++;
+        for(int v = 0; v < n; v++)
+            bucketOffsets[v + 1] += bucketOffsets[v];
+
+        int[] bucketTarget = new int[bucketOffsets[n]];
+        double[] bucketDist = new double[bucketOffsets[n]];
+        int[] cursor = Arrays.copyOf(bucketOffsets, n);
+        for(int j = 0; j < numOfTargets; j++) {
+            for(int k = 0; k < spaceNodes[j].length; k++) {
+                int b = cursor[spaceNodes[j][k]]++;
+                bucketTarget[b] = j;
+                bucketDist[b] = spaceDist[j][k];
+            }
+        }
+
+        // forward phase | every source owns its row of the table
+        pool.invoke(new ParallelRange(0, sources.length, ParallelRange.grainFor(sources.length, pool.getParallelism()), (lo, hi) -> {
+            UpwardSearch search = searches.take();
+            for(int i = lo; i < hi; i++) {
+                int row = i * numOfTargets;
+                Arrays.fill(table, row, row + numOfTargets, Double.POSITIVE_INFINITY);
+                search.run(sources[i], true);
+
+                for(int k = 0; k < search.numOfSettled; k++) {
+                    int at = search.settled[k];
+                    double d = search.dist[at];
+                    for(int b = bucketOffsets[at]; b < bucketOffsets[at + 1]; b++) {
+                        double cost = d + bucketDist[b];
+                        if(cost < table[row + bucketTarget[b]])
+                            table[row + bucketTarget[b]] = cost;
+                    }
+                }
+            }
+            searches.release(search);
+        }));
+
+        return table;
+    }
+
+
+    // one sided search until the heap is empty | forward uses upward edges, backward the downward ones reversed
+    private static class UpwardSearch {
+        private final ContractionHierarchy ch;
+        private final double[] dist;
+        private final int[] seen;
+        private final int[] settled;
+        private final MinIndexedDHeap heap;
+        private int epoch, numOfSettled;
+
+        UpwardSearch(ContractionHierarchy ch) {
+            int size = Math.max(1, ch.n);
+            this.ch = ch;
+            this.dist = new double[size];
+            this.seen = new int[size];
+            this.settled = new int[size];
+            this.heap = new MinIndexedDHeap(HEAP_ARITY, size);
+        }
+
+        void run(int start, boolean forward) {
+            if(++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                epoch = 1;
+            }
+            heap.clear();
+            numOfSettled = 0;
+
+            int[] offsets = forward ? ch.upOffsets : ch.downOffsets;
+            int[] edges = forward ? ch.upEdges : ch.downEdges;
+            int[] next = forward ? ch.edgeTo : ch.edgeFrom;
+
+            seen[start] = epoch;
+            dist[start] = 0.0;
+            heap.insert(start, 0.0);
+
+            while(!heap.isEmpty()) {
+                int at = heap.pollMin();
+                settled[numOfSettled++] = at;
+
+                for(int i = offsets[at]; i < offsets[at + 1]; i++) {
+                    int e = edges[i];
+                    int to = next[e];
+                    double newDist = dist[at] + ch.edgeCost[e];
+                    if(seen[to] != epoch) {
+                        seen[to] = epoch;
+                        dist[to] = newDist;
+                        heap.insert(to, newDist);
+                    }
+                    else if(newDist < dist[to]) {
+                        dist[to] = newDist;
+                        if(heap.contains(to))
+                            heap.decreaseKey(to, newDist);
+                    }
+                }
+            }
+        }
+    }
+
+
+    // splits the hierarchy edges into the upward and the (reversed) downward search graph
+    private void buildSearchGraphs() {
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+
+        for(int e = 0; e < numOfEdges; e++) {
+            if(rank[edgeFrom[e]] < rank[edgeTo[e]])
+                upOffsets[edgeFrom[e] + 1]++;
+            else if(rank[edgeFrom[e]] > rank[edgeTo[e]])
+                downOffsets[edgeTo[e] + 1]++;
+        }
+
+        for(int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+
+        upEdges = new int[upOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        int[] upCursor = Arrays.copyOf(upOffsets, n);
+        int[] downCursor = Arrays.copyOf(downOffsets, n);
+
+        for(int e = 0; e < numOfEdges; e++) {
+            if(rank[edgeFrom[e]] < rank[edgeTo[e]])
+                upEdges[upCursor[edgeFrom[e]]++] = e;
+            else if(rank[edgeFrom[e]] > rank[edgeTo[e]])
+                downEdges[downCursor[edgeTo[e]]++] = e;
+        }
+    }
+
+
+    public void save(Path file) throws IOException {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(n);
+            out.writeInt(numOfEdges);
+
+            for(int v = 0; v < n; v++)
+                out.writeInt(rank[v]);
+
+            for(int e = 0; e < numOfEdges; e++) {
+                out.writeInt(edgeFrom[e]);
+                out.writeInt(edgeTo[e]);
+                out.writeInt(edgeCost[e]);
+                out.writeInt(child1[e]);
+                out.writeInt(child2[e]);
+            }
+        }
+    }
+
+
+    public static ContractionHierarchy load(Path file) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != FILE_MAGIC)
+                throw new IOException("Not a contraction hierarchy file: " + file);
+
+            ContractionHierarchy ch = new ContractionHierarchy(in.readInt());
+            int m = in.readInt();
+
+            ch.rank = new int[ch.n];
+            for(int v = 0; v < ch.n; v++)
+                ch.rank[v] = in.readInt();
+
+            ch.numOfEdges = m;
+            ch.edgeFrom = new int[m];
+            ch.edgeTo = new int[m];
+            ch.edgeCost = new int[m];
+            ch.child1 = new int[m];
+            ch.child2 = new int[m];
+            for(int e = 0; e < m; e++) {
+                ch.edgeFrom[e] = in.readInt();
+                ch.edgeTo[e] = in.readInt();
+                ch.edgeCost[e] = in.readInt();
+                ch.child1[e] = in.readInt();
+                ch.child2[e] = in.readInt();
+            }
+
+            ch.buildSearchGraphs();
+            return ch;
+        }
+    }
+
+
+    // preprocessing state, dropped once the hierarchy is built
+    private static class Contractor {
+
+        private final ContractionHierarchy ch;
+        private final int n;
+        private final IntList[] outEdges, inEdges;      // edge ids touching every node
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] level;      // depth in the hierarchy | spreads contraction evenly
+
+        // witness search workspace
+        private final double[] witnessDist;
+        private final int[] witnessSeen;
+        private int witnessEpoch;
+        private final MinIndexedDHeap witnessHeap;
+
+        // cheapest edge per neighbour of the node being contracted | parallel edges need one shortcut
+        private final int[] cheapestIn, cheapestOut, inSeen, outSeen;
+        private int neighbourEpoch;
+
+
+        Contractor(ContractionHierarchy ch, CSRGraph graph) {
+            this.ch = ch;
+            this.n = graph.numOfNodes();
+            this.outEdges = new IntList[n];
+            this.inEdges = new IntList[n];
+            this.contracted = new boolean[n];
+            this.contractedNeighbours = new int[n];
+            this.level = new int[n];
+            this.witnessDist = new double[Math.max(1, n)];
+            this.witnessSeen = new int[Math.max(1, n)];
+            this.witnessHeap = new MinIndexedDHeap(HEAP_ARITY, Math.max(1, n));
+            this.cheapestIn = new int[Math.max(1, n)];
+            this.cheapestOut = new int[Math.max(1, n)];
+            this.inSeen = new int[Math.max(1, n)];
+            this.outSeen = new int[Math.max(1, n)];
+
+            for(int v = 0; v < n; v++) {
+                outEdges[v] = new IntList();
+                inEdges[v] = new IntList();
+            }
+
+            int m = graph.numOfEdges();
+            ch.edgeFrom = new int[Math.max(16, m * 2)];
+            ch.edgeTo = new int[ch.edgeFrom.length];
+            ch.edgeCost = new int[ch.edgeFrom.length];
+            ch.child1 = new int[ch.edgeFrom.length];
+            ch.child2 = new int[ch.edgeFrom.length];
+
+            int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+            for(int from = 0; from < n; from++) {
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    if(targets[e] != from)  // self loops never lie on a shortest path
+                        addEdge(from, targets[e], costs[e], NONE, NONE);
+                }
+            }
+        }
+
+
+        void run() {
+            ch.rank = new int[n];
+            MinIndexedDHeap order = new MinIndexedDHeap(HEAP_ARITY, Math.max(1, n));
+            for(int v = 0; v < n; v++)
+                order.insert(v, priority(v));
+
+            int nextRank = 0;
+            while(!order.isEmpty()) {
+                int v = order.pollMin();
+
+                // lazy update | priority may have grown since it was inserted
+                double current = priority(v);
+                if(!order.isEmpty() && current > order.valueOf(order.peekMin())) {
+                    order.insert(v, current);
+                    continue;
+                }
+
+                contract(v, false);
+                contracted[v] = true;
+                ch.rank[v] = nextRank++;
+
+                // v is gone from the remaining graph | neighbours forget their edges to it
+                for(int i = 0; i < outEdges[v].size; i++) {
+                    int e = outEdges[v].get(i);
+                    int w = ch.edgeTo[e];
+                    contractedNeighbours[w]++;
+                    level[w] = Math.max(level[w], level[v] + 1);
+                    inEdges[w].remove(e);
+                }
+                for(int i = 0; i < inEdges[v].size; i++) {
+                    int e = inEdges[v].get(i);
+                    int u = ch.edgeFrom[e];
+                    contractedNeighbours[u]++;
+                    level[u] = Math.max(level[u], level[v] + 1);
+                    outEdges[u].remove(e);
+                }
+
+                // neighbours lost an edge and maybe gained shortcuts | refresh them right away
+                for(int i = 0; i < outEdges[v].size; i++)
+                    refresh(order, ch.edgeTo[outEdges[v].get(i)]);
+                for(int i = 0; i < inEdges[v].size; i++)
+                    refresh(order, ch.edgeFrom[inEdges[v].get(i)]);
+            }
+        }
+
+
+        private void refresh(MinIndexedDHeap order, int v) {
+            if(order.contains(v))
+                order.updateKey(v, priority(v));
+        }
+
+
+        // weighted edge difference + contracted neighbours + level, smaller gets contracted first
+        private double priority(int v) {
+            int removed = outEdges[v].size + inEdges[v].size;
+            return 4 * (contract(v, true) - removed) + 2 * contractedNeighbours[v] + level[v];
+        }
+
+
+        // adds (or only counts when simulate) the shortcuts needed to remove v
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            IntList in = inEdges[v], out = outEdges[v];
+            findCheapestEdges(in, out);
+
+            for(int i = 0; i < in.size; i++) {
+                int e1 = in.get(i), u = ch.edgeFrom[e1];
+                if(cheapestIn[u] != e1)
+                    continue;
+
+                // longest path through v we might need a witness for
+                double limit = Double.NEGATIVE_INFINITY;
+                for(int j = 0; j < out.size; j++) {
+                    int e2 = out.get(j), w = ch.edgeTo[e2];
+                    if(w != u && cheapestOut[w] == e2)
+                        limit = Math.max(limit, (double) ch.edgeCost[e1] + ch.edgeCost[e2]);
+                }
+                if(limit == Double.NEGATIVE_INFINITY)
+                    continue;
+
+                witnessSearch(u, v, limit, simulate ? MAX_SIMULATED_WITNESS_SETTLED : MAX_WITNESS_SETTLED);
+
+                for(int j = 0; j < out.size; j++) {
+                    int e2 = out.get(j), w = ch.edgeTo[e2];
+                    if(w == u || cheapestOut[w] != e2)
+                        continue;
+
+                    double viaV = (double) ch.edgeCost[e1] + ch.edgeCost[e2];
+                    double witness = witnessSeen[w] == witnessEpoch ? witnessDist[w] : Double.POSITIVE_INFINITY;
+                    if(witness <= viaV)
+                        continue;
+
+                    shortcuts++;
+                    if(!simulate)
+                        addShortcut(u, w, shortcutCost(e1, e2), e1, e2);
+                }
+            }
+
+            return shortcuts;
+        }
+
+
+        // shortcuts stack, a wrapped int would turn into a negative cost and break every later query
+        private int shortcutCost(int e1, int e2) {
+            try {
+                return Math.addExact(ch.edgeCost[e1], ch.edgeCost[e2]);
+            }
+            catch(ArithmeticException e) {
+                throw new IllegalStateException("Shortcut cost does not fit an int: "
+                    + ((long) ch.edgeCost[e1] + ch.edgeCost[e2]));
+            }
+        }
+
+
+        // in/out lists only hold edges between remaining nodes, O(deg) with epoch stamps
+        private void findCheapestEdges(IntList in, IntList out) {
+            if(++neighbourEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(inSeen, 0);
+                Arrays.fill(outSeen, 0);
+                neighbourEpoch = 1;
+            }
+
+            for(int i = 0; i < in.size; i++) {
+                int e = in.get(i), u = ch.edgeFrom[e];
+                if(inSeen[u] != neighbourEpoch || ch.edgeCost[e] < ch.edgeCost[cheapestIn[u]]) {
+                    inSeen[u] = neighbourEpoch;
+                    cheapestIn[u] = e;
+                }
+            }
+
+            for(int j = 0; j < out.size; j++) {
+                int e = out.get(j), w = ch.edgeTo[e];
+                if(outSeen[w] != neighbourEpoch || ch.edgeCost[e] < ch.edgeCost[cheapestOut[w]]) {
+                    outSeen[w] = neighbourEpoch;
+                    cheapestOut[w] = e;
+                }
+            }
+        }
+
+
+        // Dijkstra from u over not yet contracted nodes, never through `avoid`, bounded by limit
+        private void witnessSearch(int u, int avoid, double limit, int maxSettled) {
+            if(++witnessEpoch == Integer.MAX_VALUE) {
+                Arrays.fill(witnessSeen, 0);
+                witnessEpoch = 1;
+            }
+            witnessHeap.clear();
+            witnessSeen[u] = witnessEpoch;
+            witnessDist[u] = 0.0;
+            witnessHeap.insert(u, 0.0);
+
+            int settled = 0;
+            while(!witnessHeap.isEmpty() && settled++ < maxSettled) {
+                int at = witnessHeap.pollMin();
+                if(witnessDist[at] > limit)
+                    break;
+
+                IntList edges = outEdges[at];
+                for(int i = 0; i < edges.size; i++) {
+                    int e = edges.get(i), to = ch.edgeTo[e];
+                    if(to == avoid || contracted[to])
+                        continue;
+
+                    double newDist = witnessDist[at] + ch.edgeCost[e];
+                    if(witnessSeen[to] != witnessEpoch) {
+                        witnessSeen[to] = witnessEpoch;
+                        witnessDist[to] = newDist;
+                        witnessHeap.insert(to, newDist);
+                    }
+                    else if(newDist < witnessDist[to]) {
+                        witnessDist[to] = newDist;
+                        if(witnessHeap.contains(to))
+                            witnessHeap.decreaseKey(to, newDist);
+                    }
+                }
+            }
+        }
+
+
+        // an older shortcut u -> w between remaining nodes is not part of any other shortcut yet,
+        // so it is overwritten instead of piling up parallel edges
+        private void addShortcut(int from, int to, int cost, int first, int second) {
+            IntList out = outEdges[from];
+            for(int i = 0; i < out.size; i++) {
+                int e = out.get(i);
+                if(ch.edgeTo[e] == to && ch.child1[e] != NONE) {
+                    if(cost < ch.edgeCost[e]) {
+                        ch.edgeCost[e] = cost;
+                        ch.child1[e] = first;
+                        ch.child2[e] = second;
+                    }
+                    return;
+                }
+            }
+
+            addEdge(from, to, cost, first, second);
+        }
+
+
+        private void addEdge(int from, int to, int cost, int first, int second) {
+            int e = ch.numOfEdges++;
+            if(e == ch.edgeFrom.length) {
+                int capacity = e << 1;
+                ch.edgeFrom = Arrays.copyOf(ch.edgeFrom, capacity);
+                ch.edgeTo = Arrays.copyOf(ch.edgeTo, capacity);
+                ch.edgeCost = Arrays.copyOf(ch.edgeCost, capacity);
+                ch.child1 = Arrays.copyOf(ch.child1, capacity);
+                ch.child2 = Arrays.copyOf(ch.child2, capacity);
+            }
+
+            ch.edgeFrom[e] = from;
+            ch.edgeTo[e] = to;
+            ch.edgeCost[e] = cost;
+            ch.child1[e] = first;
+            ch.child2[e] = second;
+            outEdges[from].add(e);
+            inEdges[to].add(e);
+        }
+    }
+
+
+    // growable int array | adjacency changes while shortcuts are added
+    private static class IntList {
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int value) {
+            if(size == items.length)
+                items = Arrays.copyOf(items, size << 1);
+            items[size++] = value;
+        }
+
+        int get(int i) { return items[i]; }
+
+        // order is not kept | last item takes the free slot
+        void remove(int value) {
+            for(int i = 0; i < size; i++) {
+                if(items[i] == value) {
+                    items[i] = items[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+
+    private static String formatPath(List<Integer> path) {
+        return path.stream().map(Object::toString).collect(Collectors.joining("->"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        // 3 x 3 grid with a slow middle node, two way streets
+        final int n = 9;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        builder.connectEdge(0, 1, 4).connectEdge(1, 2, 4)
+               .connectEdge(3, 4, 9).connectEdge(4, 5, 9)
+               .connectEdge(6, 7, 4).connectEdge(7, 8, 4)
+               .connectEdge(0, 3, 2).connectEdge(3, 6, 2)
+               .connectEdge(1, 4, 9).connectEdge(4, 7, 9)
+               .connectEdge(2, 5, 2).connectEdge(5, 8, 2);
+        CSRGraph graph = builder.build();
+
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        System.out.println("shortcuts added: " + ch.numOfShortcuts());
+        System.out.printf("CH cost from %d to %d: %.2f\n", 0, 8, ch.query(0, 8));
+        System.out.printf("Dijkstra cost from %d to %d: %.2f\n", 0, 8, new Dijkstra(graph).dijkstra(0, 8));
+        System.out.println("CH path: " + formatPath(ch.reconstructPath(0, 8)));
+
+        Path file = Files.createTempFile("hierarchy", ".ch");
+        ch.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+        System.out.println("loaded CH path 6 -> 2: " + formatPath(loaded.reconstructPath(6, 2)));
+        Files.delete(file);
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+shortcuts added: 10
+CH cost from 0 to 8: 12.00
+Dijkstra cost from 0 to 8: 12.00
+CH path: 0->1->2->5->8
+loaded CH path 6 -> 2: 6->7->8->5->2
+*/
@@ -40,6 +40,33 @@ class DFS {
     }
 
 
+    // same traversal over a CSR graph | int[] stack instead of boxed Stack<Integer>
+    // nodes are marked on push so the stack never holds more than n entries
+    static int dfsIterative(CSRGraph graph, int start) {
+        int n = graph.numOfNodes(), count = 0, top = 0;
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+
+        visited[start] = true;
+        stack[top++] = start;
+
+        while(top > 0) {
+            int node = stack[--top];
+            ++count;
+            for(int e = offsets[node]; e < offsets[node + 1]; e++) {
+                int to = targets[e];
+                if(!visited[to]) {
+                    visited[to] = true;
+                    stack[top++] = to;
+                }
+            }
+        }
+
+        return count;
+    }
+
+
     private static int dfsRecursive(Map<Integer, List<Edge>> graph, boolean[] visited, int start) {
         
         if(visited[start])
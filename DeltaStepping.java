@@ -0,0 +1,475 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/* Delta stepping (Meyer & Sanders) - parallel Single Source Shortest Path for `non-negative` weights.
+Dijkstra settles one node at a time from one heap. Delta stepping keeps buckets of width delta,
+bucket i holds the nodes with tentative distance in [i * delta, (i + 1) * delta), and settles a
+whole bucket at once:
+ - light edges (cost <= delta) may land in the bucket being processed, so they are relaxed in
+   phases until the bucket stays empty, every phase runs the whole bucket on a ForkJoinPool
+ - heavy edges (cost > delta) always land in a later bucket, they are relaxed once per bucket
+   from every node it settled
+Edges are copied once per node as light ones first, so neither loop tests the cost.
+
+Relaxing is an atomic min on one long per node, (distance << 32) | prev, so distance and prev
+always belong to the same path. Only a strictly shorter distance wins, which keeps prev a tree
+even with zero cost cycles. Tentative distances never span more than max cost / delta + 1
+buckets, so every running piece fills its own ring of that many bucket lists (ParallelRange.Scratch,
+owned by the engine, not by the pool threads), nothing is shared but `keys`. The ring holds at most
+MAX_SLOTS buckets, a small delta on large costs parks the far buckets in an overflow list that
+moves into the ring once the ring reaches them.
+
+delta trades work for parallelism: delta = 1 on unit costs is parallel BFS, delta = inf is
+Bellman Ford. Distances must stay below 2^31 - 1.
+dist / prev come out like Dijkstra, prev may name another predecessor when two paths tie.
+
+time complexity: O(V + E) work per phase, phases ~ (max distance / delta) * light phases per bucket
+memory: 8 bytes per edge (light / heavy copy) + 8 bytes per node (keys) + dist / prev
+        + a ring of at most MAX_SLOTS bucket lists per running piece
+*/
+
+class DeltaStepping {
+
+    static final int NO_PREV = -1;
+    private static final int MIN_GRAIN = 256;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 10;
+    private static final long UNREACHED = -1L;               // distance and prev all ones
+    private static final long MAX_DISTANCE = Integer.MAX_VALUE - 1;
+    private static final int MAX_SLOTS = 1 << 14;              // 128 KB of list references per ring
+
+    private final CSRGraph graph;
+    private final int n;
+    private final ForkJoinPool pool;
+    private final int delta;
+    private final int numOfSlots;           // ring of buckets, max cost / delta + 2 up to MAX_SLOTS
+
+    // edges of every node, light ones first | [offsets[v], lightEnd[v]) light, [lightEnd[v], offsets[v + 1]) heavy
+    private final int[] offsets, lightEnd, targets, costs;
+    private final AtomicLongArray keys;     // (distance << 32) | prev
+    private final double[] dist;
+    private final int[] prev;
+
+    private final List<Bins> allBins = new ArrayList<>();
+    private final ParallelRange.Scratch<Bins> bins = new ParallelRange.Scratch<>(this::newBins);
+    private int[] frontier = new int[64];
+    private int current;                    // bucket being processed, read by relax
+    private int numOfBuckets, numOfPhases;
+
+
+    public DeltaStepping(CSRGraph graph) {
+        this(graph, ForkJoinPool.commonPool(), suggestDelta(graph));
+    }
+
+    public DeltaStepping(CSRGraph graph, ForkJoinPool pool, int delta) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+        if(pool == null)
+            throw new IllegalArgumentException("Pool cannot be null");
+        if(delta <= 0)
+            throw new IllegalArgumentException("Delta must be positive");
+
+        this.graph = graph;
+        this.n = graph.numOfNodes();
+        this.pool = pool;
+        this.delta = delta;
+
+        int maxCost = 0;
+        for(int cost : graph.costs()) {
+            if(cost < 0)
+                throw new IllegalArgumentException("Delta stepping needs non-negative costs");
+            maxCost = Math.max(maxCost, cost);
+        }
+        // long | maxCost / 1 + 2 does not fit an int
+        this.numOfSlots = (int) Math.min(MAX_SLOTS, maxCost / (long) delta + 2);
+
+        this.offsets = graph.offsets();
+        this.lightEnd = new int[n];
+        this.targets = new int[graph.numOfEdges()];
+        this.costs = new int[graph.numOfEdges()];
+        splitEdges();
+
+        this.keys = new AtomicLongArray(n);
+        this.dist = new double[n];
+        this.prev = new int[n];
+    }
+
+
+    // max cost / average degree | about one light phase per bucket on random graphs
+    static int suggestDelta(CSRGraph graph) {
+        int maxCost = 1;
+        for(int cost : graph.costs())
+            maxCost = Math.max(maxCost, cost);
+        double degree = Math.max(1.0, (double) graph.numOfEdges() / Math.max(1, graph.numOfNodes()));
+        return Math.max(1, (int) (maxCost / degree));
+    }
+
+
+    public int getDelta() { return delta; }
+
+    // non-empty buckets and light phases of the last run
+    public int getNumOfBuckets() { return numOfBuckets; }
+
+    public int getNumOfPhases() { return numOfPhases; }
+
+    // shortest path tree of the last run | prev[v] == -1 for the start and unreachable nodes
+    int[] getPrev() { return prev; }
+
+
+    // full single source run | dist to every node, +inf when not reachable, reused by the next run
+    public double[] deltaStepping(int start) {
+        pool.invoke(new ParallelRange(0, n, grain(n), (lo, hi) -> {
+            for(int v = lo; v < hi; v++)
+                keys.setPlain(v, UNREACHED);
+        }));
+        for(Bins b : allBins)
+            b.clear();
+        numOfBuckets = numOfPhases = 0;
+
+        keys.set(start, pack(0, NO_PREV));
+        frontier[0] = start;
+        int size = 1;
+
+        for(current = 0; current >= 0; current = nextBucket(current)) {
+            if(current > 0)
+                size = gather(current);
+            numOfBuckets++;
+
+            // light phases until the bucket stays empty
+            while(size > 0) {
+                final int bucket = current, count = size;
+                final int[] nodes = frontier;
+                forEach(count, (lo, hi) -> {
+                    Bins local = bins.take();
+                    for(int i = lo; i < hi; i++) {
+                        int at = nodes[i];
+                        long d = keys.get(at) >>> 32;
+                        if(d / delta != bucket)
+                            continue;       // stale entry, moved to an earlier bucket meanwhile
+                        local.settled.add(at);
+                        for(int e = offsets[at]; e < lightEnd[at]; e++)
+                            relax(at, d, targets[e], costs[e], local);
+                    }
+                    bins.release(local);
+                });
+                numOfPhases++;
+                size = gather(current);
+            }
+
+            // heavy edges once from every node of the bucket | a node settled twice relaxes twice, same result
+            int count = gatherSettled();
+            final int[] nodes = frontier;
+            forEach(count, (lo, hi) -> {
+                Bins local = bins.take();
+                for(int i = lo; i < hi; i++) {
+                    int at = nodes[i];
+                    long d = keys.get(at) >>> 32;
+                    for(int e = lightEnd[at]; e < offsets[at + 1]; e++)
+                        relax(at, d, targets[e], costs[e], local);
+                }
+                bins.release(local);
+            });
+
+            for(Bins b : allBins)
+                b.release(current % numOfSlots);
+        }
+
+        pool.invoke(new ParallelRange(0, n, grain(n), (lo, hi) -> {
+            for(int v = lo; v < hi; v++) {
+                long key = keys.get(v);
+                dist[v] = key == UNREACHED ? Double.POSITIVE_INFINITY : (double) (key >>> 32);
+                prev[v] = key == UNREACHED ? NO_PREV : (int) key;
+            }
+        }));
+
+        return dist;
+    }
+
+
+    // atomic min on the distance half of the key | buckets past the ring go to the overflow list
+    private void relax(int from, long d, int to, int cost, Bins local) {
+        long newDist = d + cost;
+        if(newDist > MAX_DISTANCE)
+            throw new IllegalStateException("Distance does not fit 31 bits: " + newDist);
+
+        long key = pack(newDist, from);
+        long old = keys.get(to);
+        while(newDist < (old >>> 32)) {
+            if(keys.compareAndSet(to, old, key)) {
+                int bucket = (int) (newDist / delta);
+                if(bucket - current < numOfSlots)
+                    local.add(bucket % numOfSlots, to);
+                else
+                    local.defer(bucket, to);
+                return;
+            }
+            old = keys.get(to);
+        }
+    }
+
+    private static long pack(long distance, int from) {
+        return distance << 32 | (from & 0xffffffffL);
+    }
+
+
+    // smallest non-empty bucket after `current` on any ring, -1 when all are empty
+    // ring entries lie within numOfSlots of `current`, overflow entries beyond the ring
+    private int nextBucket(int current) {
+        for(int from = current + 1; ; ) {
+            int next = scanRing(from);
+            int far = Integer.MAX_VALUE;
+            for(Bins b : allBins)
+                far = Math.min(far, b.overflowMin);
+            if(far == Integer.MAX_VALUE)
+                return next;
+
+            // the ring may only return `next` when no overflow entry can come before it
+            int base = next < 0 ? far : Math.min(next, far);
+            if(far - base >= numOfSlots)
+                return next;
+            refill(current, base);
+            from = base;
+        }
+    }
+
+    // at most numOfSlots buckets, never past the largest bucket a distance can reach
+    private int scanRing(int from) {
+        long end = Math.min((long) from + numOfSlots, MAX_DISTANCE / delta + 1);
+        for(int bucket = from; bucket < end; bucket++)
+            for(Bins b : allBins)
+                if(b.size(bucket % numOfSlots) > 0)
+                    return bucket;
+        return -1;
+    }
+
+    // overflow entries within numOfSlots of `base` move into the ring, entries of processed buckets are dropped
+    private void refill(int current, int base) {
+        for(Bins b : allBins) {
+            IntList overflow = b.overflow;
+            int kept = 0, min = Integer.MAX_VALUE;
+            for(int i = 0; i < overflow.size; i++) {
+                int v = overflow.items[i];
+                int bucket = (int) ((keys.get(v) >>> 32) / delta);
+                if(bucket <= current)
+                    continue;
+                if(bucket - base < numOfSlots) {
+                    b.add(bucket % numOfSlots, v);
+                }
+                else {
+                    overflow.items[kept++] = v;
+                    min = Math.min(min, bucket);
+                }
+            }
+            overflow.size = kept;
+            b.overflowMin = min;
+        }
+    }
+
+
+    // moves bucket `bucket` of every worker into `frontier`
+    private int gather(int bucket) {
+        int slot = bucket % numOfSlots, size = 0;
+        for(Bins b : allBins)
+            size += b.size(slot);
+        if(frontier.length < size)
+            frontier = new int[Math.max(size, frontier.length << 1)];
+
+        int at = 0;
+        for(Bins b : allBins)
+            at = b.drain(slot, frontier, at);
+        return size;
+    }
+
+    private int gatherSettled() {
+        int size = 0;
+        for(Bins b : allBins)
+            size += b.settled.size;
+        if(frontier.length < size)
+            frontier = new int[Math.max(size, frontier.length << 1)];
+
+        int at = 0;
+        for(Bins b : allBins) {
+            System.arraycopy(b.settled.items, 0, frontier, at, b.settled.size);
+            at += b.settled.size;
+            b.settled.size = 0;
+        }
+        return size;
+    }
+
+
+    // light edges first, every node copies its own range
+    private void splitEdges() {
+        int[] graphTargets = graph.targets(), graphCosts = graph.costs();
+        pool.invoke(new ParallelRange(0, n, grain(n), (lo, hi) -> {
+            for(int v = lo; v < hi; v++) {
+                int light = offsets[v], heavy = offsets[v + 1];
+                for(int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int at = graphCosts[e] <= delta ? light++ : --heavy;
+                    targets[at] = graphTargets[e];
+                    costs[at] = graphCosts[e];
+                }
+                lightEnd[v] = light;
+            }
+        }));
+    }
+
+
+    // small buckets are the common case, one thread runs them without a round trip through the pool
+    private void forEach(int size, ParallelRange.RangeTask task) {
+        if(size < SEQUENTIAL_THRESHOLD)
+            task.run(0, size);
+        else
+            pool.invoke(new ParallelRange(0, size, grain(size), task));
+    }
+
+
+    private int grain(int size) {
+        return Math.max(MIN_GRAIN, ParallelRange.grainFor(size, pool.getParallelism()));
+    }
+
+
+    // more pieces running at once than ever before | the list is only read between parallel steps
+    private Bins newBins() {
+        Bins b = new Bins(numOfSlots);
+        synchronized(allBins) {
+            allBins.add(b);
+        }
+        return b;
+    }
+
+
+    // buckets filled by one running piece at a time, a ring indexed by bucket % numOfSlots
+    private static class Bins {
+        private final IntList[] slots;
+        private final IntList settled = new IntList();
+        private final IntList overflow = new IntList();     // buckets past the ring
+        private int overflowMin = Integer.MAX_VALUE;        // no larger than any overflow bucket
+
+        Bins(int numOfSlots) {
+            this.slots = new IntList[numOfSlots];
+        }
+
+        void add(int slot, int node) {
+            if(slots[slot] == null)
+                slots[slot] = new IntList();
+            slots[slot].add(node);
+        }
+
+        void defer(int bucket, int node) {
+            overflow.add(node);
+            overflowMin = Math.min(overflowMin, bucket);
+        }
+
+        int size(int slot) {
+            return slots[slot] == null ? 0 : slots[slot].size;
+        }
+
+        int drain(int slot, int[] out, int at) {
+            IntList list = slots[slot];
+            if(list == null)
+                return at;
+            System.arraycopy(list.items, 0, out, at, list.size);
+            at += list.size;
+            list.size = 0;
+            return at;
+        }
+
+        // bucket done | a large list would otherwise stay around until the ring comes back
+        void release(int slot) {
+            slots[slot] = null;
+        }
+
+        void clear() {
+            Arrays.fill(slots, null);
+            settled.size = 0;
+            overflow.size = 0;
+            overflowMin = Integer.MAX_VALUE;
+        }
+    }
+
+
+    // growable int array
+    private static class IntList {
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int value) {
+            if(size == items.length)
+                items = Arrays.copyOf(items, size << 1);
+            items[size++] = value;
+        }
+    }
+
+
+    // prev[v] must be a tight edge: dist[prev[v]] + cost(prev[v], v) == dist[v]
+    private static boolean isShortestPathTree(CSRGraph graph, int start, double[] dist, int[] prev) {
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        for(int v = 0; v < graph.numOfNodes(); v++) {
+            if(v == start || dist[v] == Double.POSITIVE_INFINITY) {
+                if(prev[v] != NO_PREV)
+                    return false;
+                continue;
+            }
+
+            boolean tight = false;
+            for(int e = offsets[prev[v]]; e < offsets[prev[v] + 1] && !tight; e++)
+                tight = targets[e] == v && dist[prev[v]] + costs[e] == dist[v];
+            if(!tight)
+                return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CSRGraph grid = GraphGenerator.grid(500, 500, 100, 25).build(pool, true);
+        CSRGraph rmat = GraphGenerator.rmat(18, 1 << 22, 25).build(pool);
+        Random random = new Random(25);
+
+        for(CSRGraph graph : new CSRGraph[] { grid, rmat }) {
+            String name = graph == grid ? "grid" : "rmat";
+            // start at a random node that has out edges, most R-MAT nodes are isolated
+            int start = random.nextInt(graph.numOfNodes());
+            while(graph.degree(start) == 0)
+                start = random.nextInt(graph.numOfNodes());
+            double[] expected = new Dijkstra(graph, DijkstraWorkspace.DEFAULT_HEAP_ARITY).dijkstra(start);
+            System.out.printf("%s V=%d E=%d\n", name, graph.numOfNodes(), graph.numOfEdges());
+
+            // timings are in Benchmark (java Benchmark sssp), bucket and phase counts vary with the threads
+            int suggested = suggestDelta(graph);
+            for(int delta : new int[] { 1, suggested, 4 * suggested, 1_000 }) {
+                DeltaStepping engine = new DeltaStepping(graph, pool, delta);
+                double[] dist = engine.deltaStepping(start);
+                System.out.printf("  delta %4d: same dist %b, valid prev %b\n", delta, Arrays.equals(dist, expected),
+                    isShortestPathTree(graph, start, dist, engine.getPrev()));
+            }
+        }
+
+        // costs up to 10^6 with delta 1 would need a ring of 10^6 buckets, far buckets wait in the overflow lists
+        CSRGraph heavy = GraphGenerator.grid(100, 100, 1_000_000, 25).build(pool, true);
+        DeltaStepping engine = new DeltaStepping(heavy, pool, 1);
+        double[] dist = engine.deltaStepping(0);
+        System.out.printf("costs up to 1000000, delta 1: ring of %d buckets, same dist %b, valid prev %b\n", engine.numOfSlots,
+            Arrays.equals(dist, new Dijkstra(heavy, DijkstraWorkspace.DEFAULT_HEAP_ARITY).dijkstra(0)),
+            isShortestPathTree(heavy, 0, dist, engine.getPrev()));
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+grid V=250000 E=998000
+  delta    1: same dist true, valid prev true
+  delta   25: same dist true, valid prev true
+  delta  100: same dist true, valid prev true
+  delta 1000: same dist true, valid prev true
+rmat V=262144 E=4194304
+  delta    1: same dist true, valid prev true
+  delta    6: same dist true, valid prev true
+  delta   24: same dist true, valid prev true
+  delta 1000: same dist true, valid prev true
+costs up to 1000000, delta 1: ring of 16384 buckets, same dist true, valid prev true
+*/
\ No newline at end of file
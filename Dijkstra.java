@@ -5,6 +5,13 @@ import java.util.stream.Collectors;
 for graph with `non-negative` edge weights.
 Algorithm acts in Greedy manner to select most promising node
 time complexity: O(E * log(V))
+
+Lazy  - pushes a new Node on every relaxation and skips stale ones, queue grows to O(E)
+Eager - MinIndexedDHeap with decreaseKey, heap bounded by V and relaxations allocate nothing
+
+Bidirectional (point to point) - grows one frontier from `start` on the graph and one from `end`
+on the reverse graph, always expanding the smaller one. mu = best start -> v -> end seen so far.
+Stop once minForward + minBackward >= mu, no unexplored path can beat mu any more.
 */
 
 
@@ -43,28 +50,67 @@ class Dijkstra {
     };
 
 
-    private List<List<Edge>> graph;
+    private static final int NO_PREV = -1;
+
+    private CSRGraph graph;
     private int numOfNodes;
-    private Double[] dist; 
-    private Integer[] prev;
+    private double[] dist; 
+    private int[] prev;
+    private MinIndexedDHeap heap;   // only set in eager mode
+
+    // bidirectional search state | reverse graph and heaps are built once on first query
+    private static final int BIDIRECTIONAL_HEAP_ARITY = 4;
+    private CSRGraph reverse;
+    private MinIndexedDHeap forwardHeap, backwardHeap;
+    private double[] distBackward;
+    private int[] nextBackward;     // successor towards `end` on the backward tree
+    private int meetingNode = NO_PREV;
+    private int lastTouched;        // node behind the candidate returned by expand()
 
     public Dijkstra(List<List<Edge>> graph, int n) {
+        this(toCSR(graph, n));
+    }
+
+    public Dijkstra(CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph cannot be empty");
         
         this.graph = graph;
-        this.numOfNodes = n;
+        this.numOfNodes = graph.numOfNodes();
     }
 
+    // eager mode | heapArity == 2 is a binary heap
+    public Dijkstra(CSRGraph graph, int heapArity) {
+        this(graph);
+        this.heap = new MinIndexedDHeap(heapArity, Math.max(1, numOfNodes));
+    }
 
-    private List<Integer> reconstructPath(int start, int end) {
+
+    // a null list is a node without edges
+    private static CSRGraph toCSR(List<List<Edge>> graph, int n) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be empty");
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(List<Edge> edges : graph) {
+            if(edges != null) {
+                for(Edge edge : edges)
+                    builder.addEdge(edge.from, edge.to, edge.cost);
+            }
+        }
+
+        return builder.build();
+    }
+
+
+    List<Integer> reconstructPath(int start, int end) {
 
         List<Integer> path = new ArrayList<>();
         double distance = this.dijkstra(start, end);
         if(distance == Double.POSITIVE_INFINITY)
             return path;
         
-        for(Integer at = end; at != null; at = this.prev[at])
+        for(int at = end; at != NO_PREV; at = this.prev[at])
             path.add(at);
 
         Collections.reverse(path);
@@ -76,14 +122,13 @@ class Dijkstra {
     // set start node dist: 0 and other nodes to +inf
     // similar approach as BFS 
     public double dijkstra(int start, int end) {
+        if(heap != null)
+            return eagerDijkstra(start, end);
         
         boolean[] visited = new boolean[numOfNodes];
-        prev = new Integer[this.numOfNodes];
-        
-        dist = new Double[this.numOfNodes];
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
-        dist[start] = 0.0;
+        initDist(start);
 
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
         PriorityQueue<Node> pq = new PriorityQueue<>(2 * this.numOfNodes, this.comparator);
         pq.offer(new Node(start, 0));
 
@@ -94,16 +139,14 @@ class Dijkstra {
             if(dist[node.id] < node.val)
                 continue;
             
-            List<Edge> edges = this.graph.get(node.id);
-            if(edges != null) {
-                for(Edge edge : edges) {
-                    if(!visited[edge.to]) {
-                        double newDist = dist[node.id] + edge.cost;
-                        if(newDist < dist[edge.to]) {
-                            dist[edge.to] = newDist;
-                            prev[edge.to] = node.id;
-                            pq.offer(new Node(edge.to, dist[edge.to]));
-                        }
+            for(int e = offsets[node.id]; e < offsets[node.id + 1]; e++) {
+                int to = targets[e];
+                if(!visited[to]) {
+                    double newDist = dist[node.id] + costs[e];
+                    if(newDist < dist[to]) {
+                        dist[to] = newDist;
+                        prev[to] = node.id;
+                        pq.offer(new Node(to, dist[to]));
                     }
                 }
             }
@@ -117,6 +160,159 @@ class Dijkstra {
     }
 
 
+    // full single source run | dist to every node, +inf when not reachable
+    public double[] dijkstra(int start) {
+        dijkstra(start, NO_PREV);
+        return dist;
+    }
+
+    // shortest path tree of the last run | prev[v] == -1 for the start and unreachable nodes
+    int[] getPrev() {
+        return prev;
+    }
+
+
+    // every node enters the heap once, a better path only decreases its key
+    private double eagerDijkstra(int start, int end) {
+
+        boolean[] visited = new boolean[numOfNodes];
+        initDist(start);
+
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        heap.clear();
+        heap.insert(start, 0.0);
+
+        while(!heap.isEmpty()) {
+            int at = heap.pollMin();
+            visited[at] = true;
+
+            if(at == end)
+                return dist[end];
+
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                if(!visited[to]) {
+                    double newDist = dist[at] + costs[e];
+                    if(newDist < dist[to]) {
+                        dist[to] = newDist;
+                        prev[to] = at;
+                        if(heap.contains(to))
+                            heap.decreaseKey(to, newDist);
+                        else
+                            heap.insert(to, newDist);
+                    }
+                }
+            }
+        }
+
+        // Node is not reachable
+        return Double.POSITIVE_INFINITY;
+    }
+
+
+    // start -> meeting node through prev[], meeting node -> end through nextBackward[]
+    List<Integer> reconstructBidirectionalPath(int start, int end) {
+
+        List<Integer> path = new ArrayList<>();
+        double distance = this.bidirectionalDijkstra(start, end);
+        if(distance == Double.POSITIVE_INFINITY)
+            return path;
+
+        for(int at = meetingNode; at != NO_PREV; at = this.prev[at])
+            path.add(at);
+
+        Collections.reverse(path);
+
+        for(int at = nextBackward[meetingNode]; at != NO_PREV; at = nextBackward[at])
+            path.add(at);
+
+        return path;
+    }
+
+
+    public double bidirectionalDijkstra(int start, int end) {
+        if(reverse == null) {
+            reverse = graph.reverse();
+            forwardHeap = new MinIndexedDHeap(BIDIRECTIONAL_HEAP_ARITY, Math.max(1, numOfNodes));
+            backwardHeap = new MinIndexedDHeap(BIDIRECTIONAL_HEAP_ARITY, Math.max(1, numOfNodes));
+        }
+
+        initDist(start);
+        distBackward = new double[numOfNodes];
+        Arrays.fill(distBackward, Double.POSITIVE_INFINITY);
+        distBackward[end] = 0.0;
+        nextBackward = new int[numOfNodes];
+        Arrays.fill(nextBackward, NO_PREV);
+
+        meetingNode = start == end ? start : NO_PREV;
+        double best = start == end ? 0.0 : Double.POSITIVE_INFINITY;
+
+        forwardHeap.clear();
+        backwardHeap.clear();
+        forwardHeap.insert(start, 0.0);
+        backwardHeap.insert(end, 0.0);
+
+        while(!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            double minForward = forwardHeap.valueOf(forwardHeap.peekMin());
+            double minBackward = backwardHeap.valueOf(backwardHeap.peekMin());
+            if(minForward + minBackward >= best)
+                break;
+
+            boolean forward = forwardHeap.size() <= backwardHeap.size();
+            double candidate = forward
+                ? expand(graph, forwardHeap, dist, prev, distBackward)
+                : expand(reverse, backwardHeap, distBackward, nextBackward, dist);
+
+            if(candidate < best) {
+                best = candidate;
+                meetingNode = lastTouched;
+            }
+        }
+
+        return best;
+    }
+
+
+    // settles the min node of one side, returns the best start -> v -> end through its edges
+    // (node v is left in lastTouched)
+    private double expand(CSRGraph g, MinIndexedDHeap pq, double[] d, int[] parent, double[] other) {
+        int[] offsets = g.offsets(), targets = g.targets(), costs = g.costs();
+        int at = pq.pollMin();
+        double best = Double.POSITIVE_INFINITY;
+
+        for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+            int to = targets[e];
+            double newDist = d[at] + costs[e];
+            if(newDist < d[to]) {
+                d[to] = newDist;
+                parent[to] = at;
+                if(pq.contains(to))
+                    pq.decreaseKey(to, newDist);
+                else
+                    pq.insert(to, newDist);
+            }
+
+            // checked after the update so parent chains always match d[to] + other[to]
+            if(other[to] != Double.POSITIVE_INFINITY && d[to] + other[to] < best) {
+                best = d[to] + other[to];
+                lastTouched = to;
+            }
+        }
+
+        return best;
+    }
+
+
+    private void initDist(int start) {
+        prev = new int[this.numOfNodes];
+        Arrays.fill(prev, NO_PREV);
+
+        dist = new double[this.numOfNodes];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[start] = 0.0;
+    }
+
+
     private static void addEdge(List<List<Edge>> graph, int from, int to, int cost) {
         graph.get(from).add(new Edge(from, to, cost));
     }
@@ -151,7 +347,14 @@ class Dijkstra {
         System.out.printf("total cost from %d to %d: %.2f\n", 0, 4, d.dijkstra(0, 4));
 
         List<Integer> path = d.reconstructPath(0, 4);
-        System.out.printf("Path from %d to %d: %s", 0, 4, d.formatPath(path));
+        System.out.printf("Path from %d to %d: %s\n", 0, 4, d.formatPath(path));
+
+        Dijkstra eager = new Dijkstra(toCSR(graph, n), 4);
+        path = eager.reconstructPath(0, 4);
+        System.out.printf("Eager (4-ary heap) path from %d to %d: %s\n", 0, 4, eager.formatPath(path));
+
+        path = d.reconstructBidirectionalPath(0, 4);
+        System.out.printf("Bidirectional path from %d to %d: %s (cost %.2f)", 0, 4, d.formatPath(path), d.bidirectionalDijkstra(0, 4));
     }
 }
 
@@ -160,4 +363,6 @@ OUTPUT
 ------------------------------
 total cost from 0 to 4: 7.00
 Path from 0 to 4: 0->2->1->3->4
+Eager (4-ary heap) path from 0 to 4: 0->2->1->3->4
+Bidirectional path from 0 to 4: 0->2->1->3->4 (cost 7.00)
 */
\ No newline at end of file
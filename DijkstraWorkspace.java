@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/* Dijkstra query workspace - many shortest path queries on one graph without per query garbage.
+Dijkstra allocates and fills dist / prev / visited (O(V)) on every call, which dominates when
+queries only touch a small part of a large graph. Here every per node array is allocated once:
+seen[v] == stamp marks the entries written by the current query, anything else reads as
+"not reached" (dist +inf, prev -1). A new query just bumps the stamp, so it costs O(nodes touched),
+the MinIndexedDHeap clears in O(size) as well. Settled nodes are not tracked, with non-negative
+costs a settled node can never be improved again.
+
+Multi-source: every source starts at distance 0 (or its own start cost), exactly like one super
+source with an edge to each of them. nearestSource(v) is the index of the source whose shortest
+path tree holds v, e.g. the closest facility of every node.
+
+Batch: queries are sharded over a ForkJoinPool, every worker thread runs its share on its own
+workspace, so a batch allocates one workspace per thread instead of one set of arrays per query.
+The workspaces belong to the call (ParallelRange.Scratch), the pool threads keep none of them.
+
+memory: about 40 bytes per node (dist, prev, origin, stamps, settle order, heap)
+*/
+
+class DijkstraWorkspace {
+
+    private static final int NO_PREV = -1;
+    static final int DEFAULT_HEAP_ARITY = 4;
+
+    private final CSRGraph graph;
+    private final int n;
+    private final double[] dist;
+    private final int[] prev;
+    private final int[] origin;         // index of the source that reached v first
+    private final int[] seen;           // seen[v] == stamp --> dist / prev / origin of v are current
+    private final int[] settled;        // settle order of the last query, distances ascending
+    private final MinIndexedDHeap heap;
+    private int stamp, numOfSettled;
+
+
+    public DijkstraWorkspace(CSRGraph graph) {
+        this(graph, DEFAULT_HEAP_ARITY);
+    }
+
+    public DijkstraWorkspace(CSRGraph graph, int heapArity) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        this.graph = graph;
+        this.n = graph.numOfNodes();
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.origin = new int[n];
+        this.seen = new int[n];
+        this.settled = new int[n];
+        this.heap = new MinIndexedDHeap(heapArity, Math.max(1, n));
+        // no entry carries -1, so nothing is current before the first query | begin() moves on to 1
+        this.stamp = -1;
+    }
+
+
+    // shortest path cost `start` --> `end`, stops once `end` is settled | +inf when not reachable
+    public double query(int start, int end) {
+        begin();
+        reach(start, 0.0, 0);
+        return search(end, null, 0);
+    }
+
+    // whole shortest path tree of `start`
+    public void run(int start) {
+        begin();
+        reach(start, 0.0, 0);
+        search(NO_PREV, null, 0);
+    }
+
+    // stops once every node with isTarget[v] is settled | numOfTargets = number of marked nodes,
+    // distances of targets are final afterwards, other reached nodes may still be upper bounds
+    public void runUntilSettled(int start, boolean[] isTarget, int numOfTargets) {
+        begin();
+        reach(start, 0.0, 0);
+        if(numOfTargets > 0)
+            search(NO_PREV, isTarget, numOfTargets);
+    }
+
+    public void runMultiSource(int[] sources) {
+        runMultiSource(sources, null);
+    }
+
+    // startCost[i] --> distance source i starts with (null --> all 0), a node listed twice keeps its cheapest
+    public void runMultiSource(int[] sources, double[] startCost) {
+        if(startCost != null && startCost.length != sources.length)
+            throw new IllegalArgumentException("Need one start cost per source");
+
+        begin();
+        for(int i = 0; i < sources.length; i++) {
+            double cost = startCost == null ? 0.0 : startCost[i];
+            if(cost < 0)
+                throw new IllegalArgumentException("Start cost cannot be negative");
+            reach(sources[i], cost, i);
+        }
+        search(NO_PREV, null, 0);
+    }
+
+
+    // results of the last query | nodes not reached read as +inf / -1
+    public double distance(int v) {
+        return seen[v] == stamp ? dist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    public int previous(int v) {
+        return seen[v] == stamp ? prev[v] : NO_PREV;
+    }
+
+    // index into the sources of the last run, 0 for single source queries, -1 when not reached
+    public int nearestSource(int v) {
+        return seen[v] == stamp ? origin[v] : NO_PREV;
+    }
+
+    public int numOfSettled() { return numOfSettled; }
+
+    // i-th settled node, ascending distance | all results of a query without an O(V) scan
+    public int settled(int i) { return settled[i]; }
+
+
+    // source --> `end` in the last query, empty list when `end` was not reached
+    public List<Integer> reconstructPath(int end) {
+        List<Integer> path = new ArrayList<>();
+        if(distance(end) == Double.POSITIVE_INFINITY)
+            return path;
+
+        for(int at = end; at != NO_PREV; at = prev[at])
+            path.add(at);
+
+        Collections.reverse(path);
+        return path;
+    }
+
+
+    private void begin() {
+        if(++stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        heap.clear();
+        numOfSettled = 0;
+    }
+
+
+    private void reach(int v, double cost, int source) {
+        if(seen[v] == stamp && dist[v] <= cost)
+            return;
+
+        seen[v] = stamp;
+        dist[v] = cost;
+        prev[v] = NO_PREV;
+        origin[v] = source;
+        if(heap.contains(v))
+            heap.decreaseKey(v, cost);
+        else
+            heap.insert(v, cost);
+    }
+
+
+    // settles until `end` or the last of `remaining` marked targets is settled, or the heap runs dry
+    private double search(int end, boolean[] isTarget, int remaining) {
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+
+        while(!heap.isEmpty()) {
+            int at = heap.pollMin();
+            settled[numOfSettled++] = at;
+            if(at == end || (isTarget != null && isTarget[at] && --remaining == 0))
+                return dist[at];
+
+            double d = dist[at];
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                double newDist = d + costs[e];
+                if(seen[to] != stamp) {
+                    seen[to] = stamp;
+                    dist[to] = newDist;
+                    prev[to] = at;
+                    origin[to] = origin[at];
+                    heap.insert(to, newDist);
+                }
+                else if(newDist < dist[to]) {
+                    // never true for a settled node, costs are non-negative
+                    dist[to] = newDist;
+                    prev[to] = at;
+                    origin[to] = origin[at];
+                    heap.decreaseKey(to, newDist);
+                }
+            }
+        }
+
+        // Node is not reachable
+        return Double.POSITIVE_INFINITY;
+    }
+
+
+    /* --------------------------------------- batch --------------------------------------- */
+
+    // runs on a worker thread, `workspace` holds the results of query `index` until the call returns
+    interface QueryTask {
+        void accept(int index, DijkstraWorkspace workspace);
+    }
+
+
+    // full run(sources[i]) for every i, one workspace per running leaf, dropped when the call returns
+    static void forEachSource(CSRGraph graph, int[] sources, ForkJoinPool pool, QueryTask task) {
+        ParallelRange.Scratch<DijkstraWorkspace> workspaces = new ParallelRange.Scratch<>(() -> new DijkstraWorkspace(graph));
+        pool.invoke(new ParallelRange(0, sources.length, ParallelRange.grainFor(sources.length, pool.getParallelism()), (lo, hi) -> {
+            DijkstraWorkspace ws = workspaces.take();
+            for(int i = lo; i < hi; i++) {
+                ws.run(sources[i]);
+                task.accept(i, ws);
+            }
+            workspaces.release(ws);
+        }));
+    }
+
+
+    // cost[i] = shortest path starts[i] --> ends[i], point to point with early exit
+    static double[] batchQuery(CSRGraph graph, int[] starts, int[] ends, ForkJoinPool pool) {
+        if(starts.length != ends.length)
+            throw new IllegalArgumentException("Need one end per start");
+
+        double[] cost = new double[starts.length];
+        ParallelRange.Scratch<DijkstraWorkspace> workspaces = new ParallelRange.Scratch<>(() -> new DijkstraWorkspace(graph));
+        pool.invoke(new ParallelRange(0, starts.length, ParallelRange.grainFor(starts.length, pool.getParallelism()), (lo, hi) -> {
+            DijkstraWorkspace ws = workspaces.take();
+            for(int i = lo; i < hi; i++)
+                cost[i] = ws.query(starts[i], ends[i]);
+            workspaces.release(ws);
+        }));
+        return cost;
+    }
+
+
+    public static void main(String[] args) {
+        // 500 x 500 weighted grid, two way streets
+        final int rows = 500, cols = 500, n = rows * cols, queries = 2_000;
+        CSRGraph graph = GraphGenerator.grid(rows, cols, 100, 21).build(ForkJoinPool.commonPool(), true);
+
+        Random random = new Random(21);
+        int[] starts = new int[queries], ends = new int[queries];
+        for(int i = 0; i < queries; i++) {
+            starts[i] = random.nextInt(n);
+            // mostly local queries, the common case for a workspace
+            ends[i] = Math.min(n - 1, Math.max(0, starts[i] + (random.nextInt(17) - 8) * cols + random.nextInt(17) - 8));
+        }
+
+        // timings are in Benchmark (java Benchmark p2p)
+        Dijkstra dijkstra = new Dijkstra(graph, DEFAULT_HEAP_ARITY);
+        DijkstraWorkspace ws = new DijkstraWorkspace(graph);
+        double[] expected = new double[queries];
+        for(int i = 0; i < queries; i++)
+            expected[i] = dijkstra.dijkstra(starts[i], ends[i]);
+
+        boolean same = true;
+        for(int i = 0; i < queries; i++)
+            same &= ws.query(starts[i], ends[i]) == expected[i];
+        double[] batch = batchQuery(graph, starts, ends, ForkJoinPool.commonPool());
+
+        System.out.println(queries + " local queries, same costs as Dijkstra: workspace " + same + ", batch " + Arrays.equals(batch, expected));
+
+        // nearest of 25 facilities for every node, checked against one run per facility
+        int[] facilities = new int[25];
+        for(int i = 0; i < facilities.length; i++)
+            facilities[i] = random.nextInt(n);
+        ws.runMultiSource(facilities);
+
+        double[] best = new double[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        forEachSource(graph, facilities, ForkJoinPool.commonPool(), (i, w) -> {
+            synchronized(best) {
+                for(int k = 0; k < w.numOfSettled(); k++) {
+                    int v = w.settled(k);
+                    best[v] = Math.min(best[v], w.distance(v));
+                }
+            }
+        });
+
+        boolean nearest = true;
+        int[] served = new int[facilities.length];
+        for(int v = 0; v < n; v++) {
+            nearest &= ws.distance(v) == best[v];
+            served[ws.nearestSource(v)]++;
+        }
+        System.out.println("multi source distances match per facility runs: " + nearest);
+        System.out.println("nodes served by facility 0..4: " + Arrays.toString(Arrays.copyOf(served, 5)));
+        System.out.println("path facility --> node 0: " + ws.reconstructPath(0));
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+2000 local queries, same costs as Dijkstra: workspace true, batch true
+multi source distances match per facility runs: true
+nodes served by facility 0..4: [11011, 4635, 21984, 13415, 5813]
+path facility --> node 0: [6017, 6517, 6516, 6016, 5516, 5016, 4516, 4016, 4015, 4014, 3514, 3513, 3512, 3012, 2512, 2012, 2011, 2010, 1510, 1509, 1009, 509, 508, 507, 7, 6, 5, 4, 3, 2, 1, 0]
+*/
\ No newline at end of file
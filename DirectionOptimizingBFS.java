@@ -0,0 +1,328 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/* Direction optimizing BFS (Beamer, Asanovic, Patterson) - level synchronous, parallel.
+Every level is expanded in one of two ways
+ - top-down  --> every frontier node scans its out edges and claims unvisited targets (CAS on a bitmap)
+ - bottom-up --> every unvisited node scans its in edges and stops at the first parent in the frontier
+On low diameter graphs the middle levels hold most of the graph, there bottom-up skips almost
+every edge because an unvisited node usually finds a parent after a few checks.
+
+Switching (m_f = out edges of frontier, m_u = in edges of unvisited nodes, n_f = frontier size)
+    top-down  --> bottom-up   when m_f * alpha > m_u
+    bottom-up --> top-down    when n_f * beta  < V
+alpha == 0 never leaves top-down.
+
+Frontiers: top-down keeps an int[] queue, bottom-up a bitmap of V bits. Both loops run on a
+ForkJoinPool over chunks of the frontier / 64 node aligned words of the bitmap.
+
+time complexity: O(V + E), memory: O(V) ints + 3 bitmaps
+*/
+
+class DirectionOptimizingBFS {
+
+    static final int DEFAULT_ALPHA = 15, DEFAULT_BETA = 18;
+    private static final int NO_PREV = -1;
+    private static final int MIN_GRAIN = 256;
+
+    private final CSRGraph graph, reverse;
+    private final int n;
+    private final ForkJoinPool pool;
+    private final int alpha, beta;
+
+    private final int[] prev;
+    private final int[] level;
+    private final AtomicLongArray visited;
+    private long[] frontierBits, nextBits;
+    private int[] frontier, next;
+
+    private final AtomicLong edgesInspected = new AtomicLong();
+    private int bottomUpLevels;
+
+
+    public DirectionOptimizingBFS(CSRGraph graph) {
+        this(graph, ForkJoinPool.commonPool(), DEFAULT_ALPHA, DEFAULT_BETA);
+    }
+
+    public DirectionOptimizingBFS(CSRGraph graph, ForkJoinPool pool, int alpha, int beta) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph should not be Null");
+        if(alpha < 0 || beta <= 0)
+            throw new IllegalArgumentException("Invalid switching parameters");
+
+        this.graph = graph;
+        this.reverse = graph.reverse();
+        this.n = graph.numOfNodes();
+        this.pool = pool;
+        this.alpha = alpha;
+        this.beta = beta;
+
+        int words = (n + 63) >>> 6;
+        this.prev = new int[n];
+        this.level = new int[n];
+        this.visited = new AtomicLongArray(words);
+        this.frontierBits = new long[words];
+        this.nextBits = new long[words];
+        this.frontier = new int[n];
+        this.next = new int[n];
+    }
+
+
+    // edges looked at by the last run, the number direction switching cuts down
+    public long getEdgesInspected() { return edgesInspected.get(); }
+
+    public int getBottomUpLevels() { return bottomUpLevels; }
+
+    // returned array is reused by the next run
+    int[] getPrev() { return prev; }
+
+
+    List<Integer> reconstructPath(int start, int end) {
+
+        List<Integer> path = new ArrayList<>();
+        if(level[end] == NO_PREV || level[start] != 0)
+            return path;
+
+        for(int at = end; at != NO_PREV; at = prev[at])
+            path.add(at);
+
+        Collections.reverse(path);
+        return path;
+    }
+
+
+    // hops from start to every node, -1 if unreachable | returned array is reused by the next run
+    public int[] bfs(int start) {
+        Arrays.fill(prev, NO_PREV);
+        Arrays.fill(level, NO_PREV);
+        for(int w = 0; w < visited.length(); w++)
+            visited.set(w, 0L);
+        edgesInspected.set(0);
+        bottomUpLevels = 0;
+
+        int[] outOffsets = graph.offsets(), inOffsets = reverse.offsets();
+        setVisited(start);
+        level[start] = 0;
+        frontier[0] = start;
+        int frontierSize = 1;
+        long frontierEdges = outOffsets[start + 1] - outOffsets[start];
+        long unexploredEdges = graph.numOfEdges() - (inOffsets[start + 1] - inOffsets[start]);
+        boolean bottomUp = false;
+
+        for(int depth = 1; frontierSize > 0; depth++) {
+            if(!bottomUp && frontierEdges * alpha > unexploredEdges) {
+                toBitmap(frontier, frontierSize, frontierBits);
+                bottomUp = true;
+            }
+            else if(bottomUp && (long) frontierSize * beta < n) {
+                frontierSize = toQueue(frontierBits, frontier);
+                bottomUp = false;
+            }
+
+            long[] stats;
+            if(bottomUp) {
+                stats = bottomUpStep(depth);
+                long[] swap = frontierBits;
+                frontierBits = nextBits;
+                nextBits = swap;
+                bottomUpLevels++;
+            }
+            else {
+                stats = topDownStep(frontierSize, depth);
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+
+            frontierSize = (int) stats[0];
+            frontierEdges = stats[1];
+            unexploredEdges -= stats[2];
+        }
+
+        return level;
+    }
+
+
+    // returns {new frontier size, its out edges, its in edges}
+    private long[] topDownStep(int frontierSize, int depth) {
+        int[] offsets = graph.offsets(), targets = graph.targets(), inOffsets = reverse.offsets();
+        int[] cur = frontier, out = next;
+        AtomicInteger tail = new AtomicInteger();
+        AtomicLong outEdges = new AtomicLong(), inEdges = new AtomicLong();
+
+        pool.invoke(new ParallelRange(0, frontierSize, grain(frontierSize), (lo, hi) -> {
+            int[] local = new int[64];
+            int count = 0;
+            long scanned = 0, localOut = 0, localIn = 0;
+
+            for(int i = lo; i < hi; i++) {
+                int at = cur[i];
+                for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                    int to = targets[e];
+                    scanned++;
+                    if(isVisited(to) || !claim(to))
+                        continue;
+
+                    prev[to] = at;
+                    level[to] = depth;
+                    localOut += offsets[to + 1] - offsets[to];
+                    localIn += inOffsets[to + 1] - inOffsets[to];
+                    if(count == local.length)
+                        local = Arrays.copyOf(local, count << 1);
+                    local[count++] = to;
+                }
+            }
+
+            System.arraycopy(local, 0, out, tail.getAndAdd(count), count);
+            edgesInspected.addAndGet(scanned);
+            outEdges.addAndGet(localOut);
+            inEdges.addAndGet(localIn);
+        }));
+
+        return new long[] { tail.get(), outEdges.get(), inEdges.get() };
+    }
+
+
+    // every 64 node word is owned by one task, so plain writes to nextBits are safe
+    private long[] bottomUpStep(int depth) {
+        int[] inOffsets = reverse.offsets(), sources = reverse.targets(), offsets = graph.offsets();
+        long[] cur = frontierBits, out = nextBits;
+        int words = cur.length;
+        AtomicLong found = new AtomicLong(), outEdges = new AtomicLong(), inEdges = new AtomicLong();
+
+        pool.invoke(new ParallelRange(0, words, grain(words), (lo, hi) -> {
+            long scanned = 0, localFound = 0, localOut = 0, localIn = 0;
+
+            for(int w = lo; w < hi; w++) {
+                long unvisited = ~visited.get(w);
+                long bits = 0L;
+                while(unvisited != 0) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    if(v >= n)
+                        break;
+
+                    for(int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                        int from = sources[e];
+                        scanned++;
+                        if((cur[from >>> 6] & (1L << from)) != 0) {
+                            prev[v] = from;
+                            level[v] = depth;
+                            bits |= 1L << v;
+                            localFound++;
+                            localOut += offsets[v + 1] - offsets[v];
+                            localIn += inOffsets[v + 1] - inOffsets[v];
+                            break;
+                        }
+                    }
+                }
+
+                out[w] = bits;
+                if(bits != 0)
+                    visited.set(w, visited.get(w) | bits);
+            }
+
+            edgesInspected.addAndGet(scanned);
+            found.addAndGet(localFound);
+            outEdges.addAndGet(localOut);
+            inEdges.addAndGet(localIn);
+        }));
+
+        return new long[] { found.get(), outEdges.get(), inEdges.get() };
+    }
+
+
+    private int grain(int size) {
+        return Math.max(MIN_GRAIN, ParallelRange.grainFor(size, pool.getParallelism()));
+    }
+
+
+    private boolean isVisited(int v) {
+        return (visited.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    private void setVisited(int v) {
+        visited.set(v >>> 6, visited.get(v >>> 6) | (1L << v));
+    }
+
+    // true for the one thread that flips the bit
+    private boolean claim(int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        while(true) {
+            long old = visited.get(w);
+            if((old & bit) != 0)
+                return false;
+            if(visited.compareAndSet(w, old, old | bit))
+                return true;
+        }
+    }
+
+
+    private static void toBitmap(int[] queue, int size, long[] bits) {
+        Arrays.fill(bits, 0L);
+        for(int i = 0; i < size; i++)
+            bits[queue[i] >>> 6] |= 1L << queue[i];
+    }
+
+    private static int toQueue(long[] bits, int[] queue) {
+        int size = 0;
+        for(int w = 0; w < bits.length; w++) {
+            for(long word = bits[w]; word != 0; word &= word - 1)
+                queue[size++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return size;
+    }
+
+
+    private static String formatPath(List<Integer> path) {
+        return path.stream().map(Object::toString).collect(Collectors.joining("->"));
+    }
+
+    public static void main(String[] args) {
+        // same graph as BFS
+        CSRGraph small = new CSRGraph.Builder(13)
+            .addEdge(0, 7).addEdge(9, 0).addEdge(0, 11).addEdge(7, 11).addEdge(7, 6)
+            .addEdge(7, 3).addEdge(6, 5).addEdge(3, 4).addEdge(2, 3).addEdge(2, 12)
+            .addEdge(12, 8).addEdge(8, 1).addEdge(1, 10).addEdge(10, 9).addEdge(9, 8)
+            .build();
+
+        DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(small);
+        bfs.bfs(10);
+        System.out.printf("The shortest path from %d to %d is: [%s]\n", 10, 5, formatPath(bfs.reconstructPath(10, 5)));
+
+        // low diameter random graph, 2^16 nodes with average degree 16 in both directions
+        final int n = 1 << 16;
+        Random random = new Random(7);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int i = 0; i < 8 * n; i++)
+            builder.connectEdge(random.nextInt(n), random.nextInt(n));
+        CSRGraph graph = builder.build();
+
+        DirectionOptimizingBFS topDown = new DirectionOptimizingBFS(graph, ForkJoinPool.commonPool(), 0, DEFAULT_BETA);
+        DirectionOptimizingBFS optimized = new DirectionOptimizingBFS(graph);
+        int[] a = topDown.bfs(0).clone(), b = optimized.bfs(0);
+
+        System.out.println("same levels:               " + Arrays.equals(a, b));
+        System.out.println("top-down edges inspected:  " + topDown.getEdgesInspected());
+        System.out.println("optimized edges inspected: " + optimized.getEdgesInspected()
+            + " (" + optimized.getBottomUpLevels() + " bottom-up levels)");
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+The shortest path from 10 to 5 is: [10->9->0->7->6->5]
+same levels:               true
+top-down edges inspected:  1048576
+optimized edges inspected: 629627 (3 bottom-up levels)
+*/
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/* Distance Table - many to many shortest path costs in one flat row major double[],
+table[i * targets.length + j] = cost sources[i] --> targets[j], +inf when not reachable.
+
+Dijkstra mode: one search per source on a DijkstraWorkspace that stops as soon as every target
+is settled, instead of |S| * |T| point to point queries each re-expanding from scratch.
+Sources are sharded over a ForkJoinPool, every running piece takes one workspace and writes whole
+rows, so no two threads ever write the same entry. The table keeps the workspaces for later calls,
+the pool threads do not.
+
+Hierarchy mode: bucket based many to many on a ContractionHierarchy (see there), |S| + |T|
+upward searches of a few hundred nodes each, the table costs little more than its own size.
+
+time complexity: O(|S| * (E + V log V)) worst case for Dijkstra mode, far less when targets are close
+memory: |S| * |T| doubles + one workspace per concurrently running piece
+*/
+
+class DistanceTable {
+
+    private final CSRGraph graph;
+    private final ContractionHierarchy ch;
+    private final ForkJoinPool pool;
+    private final ParallelRange.Scratch<DijkstraWorkspace> workspaces;
+
+
+    public DistanceTable(CSRGraph graph, ForkJoinPool pool) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+        if(pool == null)
+            throw new IllegalArgumentException("Pool cannot be null");
+
+        this.graph = graph;
+        this.ch = null;
+        this.pool = pool;
+        // reused by later compute() calls on this table
+        this.workspaces = new ParallelRange.Scratch<>(() -> new DijkstraWorkspace(graph));
+    }
+
+    public DistanceTable(ContractionHierarchy ch, ForkJoinPool pool) {
+        if(ch == null)
+            throw new IllegalArgumentException("Hierarchy cannot be null");
+        if(pool == null)
+            throw new IllegalArgumentException("Pool cannot be null");
+
+        this.graph = null;
+        this.ch = ch;
+        this.pool = pool;
+        this.workspaces = null;
+    }
+
+
+    public double[] compute(int[] sources, int[] targets) {
+        return compute(sources, targets, new double[tableSize(sources, targets)]);
+    }
+
+    // sources.length * targets.length | an int overflow would hand out a wrong size silently
+    static int tableSize(int[] sources, int[] targets) {
+        if(sources == null || targets == null)
+            throw new IllegalArgumentException("Sources and targets cannot be null");
+
+        try {
+            return Math.multiplyExact(sources.length, targets.length);
+        }
+        catch(ArithmeticException e) {
+            throw new IllegalArgumentException("Table of " + sources.length + " x " + targets.length + " entries does not fit an array");
+        }
+    }
+
+    // fills `table` (sources.length * targets.length entries) and returns it | lets callers reuse one buffer
+    public double[] compute(int[] sources, int[] targets, double[] table) {
+        if(table.length != tableSize(sources, targets))
+            throw new IllegalArgumentException("Table must hold sources.length * targets.length entries");
+
+        if(ch != null)
+            return ch.distanceTable(sources, targets, pool, table);
+
+        // a node listed twice is one target for the early stop
+        boolean[] isTarget = new boolean[graph.numOfNodes()];
+        int numOfTargets = 0;
+        for(int t : targets) {
+            if(!isTarget[t]) {
+                isTarget[t] = true;
+                numOfTargets++;
+            }
+        }
+
+        final int distinctTargets = numOfTargets;
+        pool.invoke(new ParallelRange(0, sources.length, ParallelRange.grainFor(sources.length, pool.getParallelism()), (lo, hi) -> {
+            DijkstraWorkspace ws = workspaces.take();
+            for(int i = lo; i < hi; i++) {
+                ws.runUntilSettled(sources[i], isTarget, distinctTargets);
+                int row = i * targets.length;
+                for(int j = 0; j < targets.length; j++)
+                    table[row + j] = ws.distance(targets[j]);
+            }
+            workspaces.release(ws);
+        }));
+
+        return table;
+    }
+
+
+    public static void main(String[] args) {
+        // 200 x 200 weighted grid, two way streets, 200 depots x 200 customers
+        final int rows = 200, cols = 200, n = rows * cols, size = 200;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CSRGraph graph = GraphGenerator.grid(rows, cols, 100, 22).build(pool, true);
+
+        Random random = new Random(22);
+        int[] sources = new int[size], targets = new int[size];
+        for(int i = 0; i < size; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+
+        // timings are in Benchmark (java Benchmark table)
+        double[] table = new DistanceTable(graph, pool).compute(sources, targets);
+        double[] buckets = new DistanceTable(ContractionHierarchy.build(graph), pool).compute(sources, targets);
+
+        // spot check against point to point queries
+        DijkstraWorkspace ws = new DijkstraWorkspace(graph);
+        boolean same = true;
+        for(int k = 0; k < 500; k++) {
+            int i = random.nextInt(size), j = random.nextInt(size);
+            same &= ws.query(sources[i], targets[j]) == table[i * size + j];
+        }
+
+        System.out.println(size + " x " + size + " table, Dijkstra mode matches point to point queries: " + same);
+        System.out.println("bucket mode matches Dijkstra mode: " + Arrays.equals(table, buckets));
+        System.out.printf("cost %d --> %d: %.2f\n", sources[0], targets[0], table[0]);
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+200 x 200 table, Dijkstra mode matches point to point queries: true
+bucket mode matches Dijkstra mode: true
+cost 34602 --> 4860: 5503.00
+*/
\ No newline at end of file
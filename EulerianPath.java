@@ -10,10 +10,19 @@ Directed graph      | every vertec has even         | AT MOST one vertex (outdeg
                     | indegrees and outdegrees      | AND one vertex (indegree - outdegree == 1)
                     |                               | AND every other has even indegree and outdegree
 --------------------|-------------------------------|-------------------------------------------------
+
+Hierholzer's algorithm, iterative: walk unused edges from the stack top, when a node runs out of
+edges pop it into the path. Nodes are popped in reverse path order, so the path is written
+back to front into an int[] of E + 1 slots. Multigraphs and self loops are fine.
+Undirected graphs hold both directions of every edge (CSRGraph.Builder#connectEdge), the two
+copies are paired up front so using one direction uses the other as well.
+Degree conditions alone are not enough, every node with an edge must also be in one
+(weakly) connected component, which is checked before the walk.
+
+time complexity: O(V + E) directed, O(V + E * log(maxDegree)) undirected (pairing the copies)
 */
 
 
-import java.util.LinkedList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,62 +30,225 @@ import java.util.List;
 class EulerianPath {
 
     private final int n;
+    private final boolean undirected;
     private int edgeCount;
     private int[] in, out;
-    private List<Integer> path;
-    private List<List<Integer>> graph;
+    private CSRGraph graph;
 
 
     public EulerianPath(List<List<Integer>> graph) {
+        this(CSRGraph.fromAdjacency(graph));
+    }
+
+    public EulerianPath(CSRGraph graph) {
+        this(graph, false);
+    }
+
+    // undirected: graph must hold both directions of every edge (see CSRGraph.Builder#connectEdge)
+    public EulerianPath(CSRGraph graph, boolean undirected) {
         if(graph == null)
             throw new IllegalArgumentException("graph cannot be null");
         
         this.graph = graph;
-        this.n = graph.size();
-        this.path = new LinkedList<>();
+        this.n = graph.numOfNodes();
+        this.undirected = undirected;
     }
 
 
-    private int[] getEulerianPath() {
+    // null when the graph has no Eulerian path
+    int[] getEulerianPath() {
+        if(undirected)
+            return getUndirectedPath();
+
         setDegrees();
-        if(!hasEulerianPath())
+        if(!hasEulerianPath() || !isConnected())
             return null;
 
-        dfs(findStartNode());
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] path = new int[edgeCount + 1];
+        int[] stack = new int[edgeCount + 1];
+        int pos = edgeCount, top = 0;
+        stack[top++] = findStartNode();
+
+        // out[at] --> edges of `at` not used yet, taken from the back
+        while(top > 0) {
+            int at = stack[top - 1];
+            if(out[at] != 0)
+                stack[top++] = targets[offsets[at] + --out[at]];
+            else
+                path[pos--] = stack[--top];
+        }
+
+        return path;
+    }
 
-        if(path.size() != edgeCount + 1)
+
+    private int[] getUndirectedPath() {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int m = graph.numOfEdges();
+        if(m == 0 || m % 2 != 0)
             return null;
-        
-        int[] res = new int[this.edgeCount + 1];
-        for(int i = 0; !path.isEmpty(); i++)
-            res[i] = path.remove(0);
 
-        return res;
-    }
+        // odd degree nodes: none (circuit) or two (path from one to the other)
+        int odd = 0, start = -1;
+        for(int v = 0; v < n; v++) {
+            int degree = offsets[v + 1] - offsets[v];
+            if(degree % 2 != 0 && odd++ == 0)
+                start = v;
+        }
+        if((odd != 0 && odd != 2) || !isConnected())
+            return null;
+        if(odd == 0)
+            start = firstNodeWithEdges();
 
+        int[] twin = pairCopies();
+        if(twin == null)
+            return null;
 
-    private void dfs(int at) {
-        while(out[at] != 0) {
-            int next = graph.get(at).get(--out[at]);
-            dfs(next);
+        boolean[] used = new boolean[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        edgeCount = m / 2;
+        int[] path = new int[edgeCount + 1];
+        int[] stack = new int[edgeCount + 1];
+        int pos = edgeCount, top = 0;
+        stack[top++] = start;
+
+        while(top > 0) {
+            int at = stack[top - 1];
+            while(cursor[at] < offsets[at + 1] && used[cursor[at]])
+                cursor[at]++;
+
+            if(cursor[at] < offsets[at + 1]) {
+                int e = cursor[at]++;
+                used[e] = used[twin[e]] = true;
+                stack[top++] = targets[e];
+            }
+            else
+                path[pos--] = stack[--top];
         }
-        this.path.add(0, at);
+
+        return path;
     }
 
 
-    private int findStartNode() {
-        int startNode = 0;
+    // twin[e] --> the other direction of edge e | k-th copy of u -> v pairs with k-th copy of v -> u
+    private int[] pairCopies() {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int m = graph.numOfEdges();
 
-        for(int i = 0; i < n; i++) {
-            if(out[i] - in[i] == 1) {
-                startNode = i;
-                break;
+        // edges of every node sorted by target, (target << 32 | edge)
+        long[] sorted = new long[m];
+        for(int v = 0; v < n; v++) {
+            for(int e = offsets[v]; e < offsets[v + 1]; e++)
+                sorted[e] = ((long) targets[e] << 32) | e;
+            Arrays.sort(sorted, offsets[v], offsets[v + 1]);
+        }
+
+        int[] twin = new int[m];
+        for(int u = 0; u < n; u++) {
+            int i = offsets[u];
+            while(i < offsets[u + 1]) {
+                int v = (int) (sorted[i] >>> 32);
+                int runEnd = i;
+                while(runEnd < offsets[u + 1] && (int) (sorted[runEnd] >>> 32) == v)
+                    runEnd++;
+
+                if(v == u) {
+                    // self loop | both copies sit in this run, pair neighbours
+                    if((runEnd - i) % 2 != 0)
+                        return null;
+                    for(int k = i; k < runEnd; k += 2) {
+                        twin[(int) sorted[k]] = (int) sorted[k + 1];
+                        twin[(int) sorted[k + 1]] = (int) sorted[k];
+                    }
+                }
+                else if(u < v) {
+                    // matching run of u inside the sorted edges of v
+                    int j = lowerBound(sorted, offsets[v], offsets[v + 1], (long) u << 32);
+                    for(int k = i; k < runEnd; k++, j++) {
+                        if(j >= offsets[v + 1] || (int) (sorted[j] >>> 32) != u)
+                            return null;    // not symmetric
+                        twin[(int) sorted[k]] = (int) sorted[j];
+                        twin[(int) sorted[j]] = (int) sorted[k];
+                    }
+                    if(j < offsets[v + 1] && (int) (sorted[j] >>> 32) == u)
+                        return null;
+                }
+                i = runEnd;
             }
+        }
+
+        return twin;
+    }
+
+
+    private static int lowerBound(long[] values, int lo, int hi, long key) {
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(values[mid] < key)
+                lo = mid + 1;
             else
-                startNode = i;
+                hi = mid;
+        }
+        return lo;
+    }
+
+
+    // every node with an edge in one weakly connected component | union find over the edges
+    private boolean isConnected() {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] parent = new int[n];
+        for(int v = 0; v < n; v++)
+            parent[v] = v;
+
+        for(int from = 0; from < n; from++) {
+            for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int a = find(parent, from), b = find(parent, targets[e]);
+                if(a != b)
+                    parent[a] = b;
+            }
         }
 
-        return startNode;
+        int root = -1;
+        for(int v = 0; v < n; v++) {
+            boolean hasEdge = offsets[v + 1] > offsets[v] || (in != null && in[v] > 0);
+            if(!hasEdge)
+                continue;
+            if(root == -1)
+                root = find(parent, v);
+            else if(find(parent, v) != root)
+                return false;
+        }
+        return true;
+    }
+
+
+    private static int find(int[] parent, int v) {
+        while(parent[v] != v) {
+            parent[v] = parent[parent[v]];     // path halving
+            v = parent[v];
+        }
+        return v;
+    }
+
+
+    private int firstNodeWithEdges() {
+        int[] offsets = graph.offsets();
+        for(int v = 0; v < n; v++)
+            if(offsets[v + 1] > offsets[v])
+                return v;
+        return 0;
+    }
+
+
+    private int findStartNode() {
+        for(int i = 0; i < n; i++) {
+            if(out[i] - in[i] == 1)
+                return i;
+        }
+
+        // circuit | any node with an edge
+        return firstNodeWithEdges();
     }
 
 
@@ -85,9 +257,10 @@ class EulerianPath {
         out = new int[this.n];
         edgeCount = 0;
 
+        int[] offsets = graph.offsets(), targets = graph.targets();
         for(int from = 0; from < n; from++) {
-            for(int to : this.graph.get(from)) {
-                in[to]++;
+            for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                in[targets[e]]++;
                 out[from]++;
                 edgeCount++;
             }
@@ -144,9 +317,22 @@ class EulerianPath {
         addEdge(graph, 5, 6);
         addEdge(graph, 6, 3);
 
-    EulerianPath e = new EulerianPath(graph);
+        EulerianPath e = new EulerianPath(graph);
+
+        System.out.println(Arrays.toString(e.getEulerianPath()));
+
+        // undirected multigraph: double edge 0 - 1, self loop on 2, odd nodes 1 and 3
+        CSRGraph undirected = new CSRGraph.Builder(4)
+            .connectEdge(0, 1).connectEdge(0, 1).connectEdge(1, 2)
+            .connectEdge(2, 2).connectEdge(2, 3)
+            .build();
+        System.out.println(Arrays.toString(new EulerianPath(undirected, true).getEulerianPath()));
 
-    System.out.println(Arrays.toString(e.getEulerianPath()));
+        // two separate cycles | degrees fit, connectivity does not
+        CSRGraph split = new CSRGraph.Builder(6)
+            .addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).addEdge(3, 4).addEdge(4, 5).addEdge(5, 3)
+            .build();
+        System.out.println(Arrays.toString(new EulerianPath(split).getEulerianPath()));
     }
 }
 
@@ -155,4 +341,6 @@ class EulerianPath {
 OUTPUT
 --------------
 [1, 3, 5, 6, 3, 2, 4, 3, 1, 2, 2, 4, 6]
+[1, 0, 1, 2, 2, 3]
+null
 */
\ No newline at end of file
@@ -31,7 +31,7 @@ class FloydWarshall {
     }
 
 
-    private void runFloydWarshall() {
+    void runFloydWarshall() {
         if(isSolved)
             return;
 
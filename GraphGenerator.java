@@ -0,0 +1,435 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Graph generators - seeded synthetic graphs for benchmarks and soak tests.
+    rmat        R-MAT / Kronecker power law graph, 2^scale nodes, m edges
+    erdosRenyi  G(n, m), m pairs drawn with replacement, no self loops
+    grid        rows x cols lattice, right and down street of every node, random costs
+    geometric   n random points in the unit square, edge between points closer than `radius`,
+                cost = distance * 10000
+    layeredDag  `layers` layers of `width` nodes, `degree` edges from every node into the next layer,
+                ids are a topological order
+    eulerian    `cycles` random Hamiltonian cycles on top of each other, in degree == out degree
+                and connected, so an Eulerian circuit always exists (directed or undirected)
+    completeMetric  euclidean distance matrix of n random points, input for TSP / ParallelTSP
+
+Nothing is materialized up front. The work is cut into units (an edge for rmat / G(n, m),
+a node for grid / geometric / DAG, a cycle position for eulerian) and every unit draws its
+random numbers from its own counter based stream (SplitMix64 of seed and unit). So a unit
+produces the same edges on whatever thread runs it, the graph only depends on the seed,
+and units run in parallel in blocks on the ForkJoinPool.
+
+forEach(sink, pool)  --> streams every edge to a thread safe sink, O(1) memory, any number of edges
+build(pool)          --> CSRGraph in two streaming passes: count degrees, then place the edges
+                         (generated twice, never stored as a list), adjacency sorted by (to, cost)
+                         so the result is the same for every pool size
+*/
+
+abstract class GraphGenerator {
+
+    private static final int BLOCK_UNITS = 1 << 14;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    static final int DEFAULT_MAX_COST = 100;
+
+    // called concurrently from the workers of the pool
+    interface EdgeSink {
+        void edge(int from, int to, int cost);
+    }
+
+    final int n;
+    final long seed;
+
+    private GraphGenerator(int n, long seed) {
+        if(n < 0)
+            throw new IllegalArgumentException("Number of nodes cannot be negative");
+        this.n = n;
+        this.seed = seed;
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    // number of work units, every one of them is generated by generate(unit, rng, sink)
+    abstract long numOfUnits();
+
+    abstract void generate(long unit, Rng rng, EdgeSink sink);
+
+
+    /* ------------------------------------ generators ------------------------------------ */
+
+    // (a, b, c) = probabilities of the top left, top right and bottom left quadrant
+    static GraphGenerator rmat(int scale, long m, double a, double b, double c, long seed) {
+        if(scale < 0 || scale > 30)
+            throw new IllegalArgumentException("Scale must be in 0..30");
+        if(a < 0 || b < 0 || c < 0 || a + b + c > 1)
+            throw new IllegalArgumentException("Quadrant probabilities must add up to at most 1");
+
+        // quadrant thresholds in 1 / 65536 | one 64 bit draw decides 4 levels
+        int ta = (int) (a * 65536), tab = (int) ((a + b) * 65536), tabc = (int) ((a + b + c) * 65536);
+        return new GraphGenerator(1 << scale, seed) {
+            long numOfUnits() { return m; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int u = 0, v = 0;
+                long bits = 0;
+                for(int level = 0; level < scale; level++) {
+                    if((level & 3) == 0)
+                        bits = rng.nextLong();
+                    int p = (int) (bits & 0xffff);
+                    bits >>>= 16;
+                    // branch free, the quadrant is a coin flip for the branch predictor
+                    // s1 = p >= a, s2 = p >= a + b, s3 = p >= a + b + c  -->  u bit = s2, v bit = s1 ^ s2 ^ s3
+                    int s1 = (ta - 1 - p) >>> 31, s2 = (tab - 1 - p) >>> 31, s3 = (tabc - 1 - p) >>> 31;
+                    u = (u << 1) | s2;
+                    v = (v << 1) | (s1 ^ s2 ^ s3);
+                }
+                sink.edge(u, v, 1 + rng.nextInt(DEFAULT_MAX_COST));
+            }
+        };
+    }
+
+    // Graph500 parameters
+    static GraphGenerator rmat(int scale, long m, long seed) {
+        return rmat(scale, m, 0.57, 0.19, 0.19, seed);
+    }
+
+
+    static GraphGenerator erdosRenyi(int n, long m, long seed) {
+        if(n < 2 && m > 0)
+            throw new IllegalArgumentException("Need at least 2 nodes for an edge without self loop");
+
+        return new GraphGenerator(n, seed) {
+            long numOfUnits() { return m; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int u = rng.nextInt(n), v = rng.nextInt(n - 1);
+                // skip u in the target range, still uniform over the other n - 1 nodes
+                sink.edge(u, v >= u ? v + 1 : v, 1 + rng.nextInt(DEFAULT_MAX_COST));
+            }
+        };
+    }
+
+
+    // node (r, c) is r * cols + c | every street once, build(pool, true) adds the way back
+    static GraphGenerator grid(int rows, int cols, int maxCost, long seed) {
+        if(rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Grid of " + rows + " x " + cols + " does not fit int ids");
+
+        return new GraphGenerator(rows * cols, seed) {
+            long numOfUnits() { return n; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int v = (int) unit, r = v / cols, c = v % cols;
+                if(c + 1 < cols)
+                    sink.edge(v, v + 1, 1 + rng.nextInt(maxCost));
+                if(r + 1 < rows)
+                    sink.edge(v, v + cols, 1 + rng.nextInt(maxCost));
+            }
+        };
+    }
+
+
+    // every pair once (u < v) | cells of side >= radius, a node only looks at the 3 x 3 cells around it
+    static GraphGenerator geometric(int n, double radius, long seed) {
+        if(radius <= 0)
+            throw new IllegalArgumentException("Radius must be positive");
+
+        int side = (int) Math.max(1, Math.min(Math.ceil(Math.sqrt(n)), Math.floor(1 / radius)));
+        double[] x = new double[n], y = new double[n];
+        int[] cellOffsets = new int[side * side + 1], cellNodes = new int[n];
+
+        Rng rng = new Rng(seed);
+        for(int v = 0; v < n; v++) {
+            rng.seek(v);
+            x[v] = rng.nextDouble();
+            y[v] = rng.nextDouble();
+            cellOffsets[cell(x[v], y[v], side) + 1]++;
+        }
+        for(int i = 0; i < side * side; i++)
+            cellOffsets[i + 1] += cellOffsets[i];
+        int[] cursor = Arrays.copyOf(cellOffsets, side * side);
+        for(int v = 0; v < n; v++)
+            cellNodes[cursor[cell(x[v], y[v], side)]++] = v;
+
+        return new GraphGenerator(n, seed) {
+            long numOfUnits() { return n; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int u = (int) unit;
+                int cx = Math.min(side - 1, (int) (x[u] * side)), cy = Math.min(side - 1, (int) (y[u] * side));
+                for(int i = Math.max(0, cx - 1); i <= Math.min(side - 1, cx + 1); i++) {
+                    for(int j = Math.max(0, cy - 1); j <= Math.min(side - 1, cy + 1); j++) {
+                        int at = i * side + j;
+                        for(int k = cellOffsets[at]; k < cellOffsets[at + 1]; k++) {
+                            int v = cellNodes[k];
+                            double dx = x[u] - x[v], dy = y[u] - y[v], d2 = dx * dx + dy * dy;
+                            if(v > u && d2 < radius * radius)
+                                sink.edge(u, v, 1 + (int) (Math.sqrt(d2) * 10_000));
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    private static int cell(double x, double y, int side) {
+        return Math.min(side - 1, (int) (x * side)) * side + Math.min(side - 1, (int) (y * side));
+    }
+
+
+    static GraphGenerator layeredDag(int layers, int width, int degree, long seed) {
+        if(layers < 0 || width < 0 || degree < 0 || (long) layers * width > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Layers of " + layers + " x " + width + " do not fit int ids");
+
+        return new GraphGenerator(layers * width, seed) {
+            long numOfUnits() { return layers <= 1 ? 0 : (long) (layers - 1) * width; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int v = (int) unit, next = (v / width + 1) * width;
+                for(int k = 0; k < degree; k++)
+                    sink.edge(v, next + rng.nextInt(width), 1 + rng.nextInt(DEFAULT_MAX_COST));
+            }
+        };
+    }
+
+
+    // cycle k visits nodes in the order of a keyed random permutation of [0, n)
+    static GraphGenerator eulerian(int n, int cycles, long seed) {
+        if(cycles < 0)
+            throw new IllegalArgumentException("Number of cycles cannot be negative");
+
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+        return new GraphGenerator(n, seed) {
+            long numOfUnits() { return n < 2 ? 0 : (long) cycles * n; }
+
+            void generate(long unit, Rng rng, EdgeSink sink) {
+                int k = (int) (unit / n), i = (int) (unit % n);
+                long key = mix(seed + k * GOLDEN_GAMMA);
+                int from = permute(i, n, bits, key), to = permute(i + 1 == n ? 0 : i + 1, n, bits, key);
+                sink.edge(from, to, 1 + rng.nextInt(DEFAULT_MAX_COST));
+            }
+        };
+    }
+
+    // bijection on [0, n): invertible mixing rounds on `bits` bits, cycle walking drops values >= n
+    private static int permute(int i, int n, int bits, long key) {
+        long mask = (1L << bits) - 1, x = i;
+        do {
+            for(int round = 0; round < 3; round++) {
+                x = (x + (key >>> (round * 16))) & mask;
+                x = (x * 0x5851f42d4c957f2dL) & mask;     // odd multiplier, invertible mod 2^bits
+                x ^= x >>> Math.max(1, bits / 2);
+            }
+        } while(x >= n);
+        return (int) x;
+    }
+
+
+    // symmetric, 0 on the diagonal, triangle inequality holds
+    static double[][] completeMetric(int n, long seed) {
+        Rng rng = new Rng(seed);
+        double[] x = new double[n], y = new double[n];
+        for(int v = 0; v < n; v++) {
+            rng.seek(v);
+            x[v] = rng.nextDouble() * 1000;
+            y[v] = rng.nextDouble() * 1000;
+        }
+
+        double[][] distance = new double[n][n];
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                distance[i][j] = Math.hypot(x[i] - x[j], y[i] - y[j]);
+        return distance;
+    }
+
+
+    /* ------------------------------------- streaming ------------------------------------- */
+
+    // every edge exactly once, from the workers of `pool` in no particular order
+    public void forEach(EdgeSink sink, ForkJoinPool pool) {
+        long units = numOfUnits();
+        long blocks = (units + BLOCK_UNITS - 1) / BLOCK_UNITS;
+        if(blocks > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many units: " + units);
+
+        pool.invoke(new ParallelRange(0, (int) blocks, ParallelRange.grainFor((int) blocks, pool.getParallelism()), (lo, hi) -> {
+            Rng rng = new Rng(seed);
+            for(long unit = (long) lo * BLOCK_UNITS, end = Math.min(units, (long) hi * BLOCK_UNITS); unit < end; unit++) {
+                rng.seek(unit);
+                generate(unit, rng, sink);
+            }
+        }));
+    }
+
+
+    public CSRGraph build(ForkJoinPool pool) {
+        return build(pool, false);
+    }
+
+    // undirected --> both directions of every generated edge, like CSRGraph.Builder#connectEdge
+    public CSRGraph build(ForkJoinPool pool, boolean undirected) {
+        // pass 1 | degrees
+        AtomicIntegerArray degree = new AtomicIntegerArray(n);
+        forEach((from, to, cost) -> {
+            degree.incrementAndGet(from);
+            if(undirected)
+                degree.incrementAndGet(to);
+        }, pool);
+
+        int[] offsets = new int[n + 1];
+        long total = 0;
+        for(int v = 0; v < n; v++) {
+            total += degree.get(v);
+            if(total > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Too many edges for a CSRGraph, stream them with forEach");
+            offsets[v + 1] = (int) total;
+        }
+
+        // pass 2 | same edges again, each claims the next free slot of its source
+        int[] targets = new int[(int) total], costs = new int[(int) total];
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+        forEach((from, to, cost) -> {
+            int at = cursor.getAndIncrement(from);
+            targets[at] = to;
+            costs[at] = cost;
+            if(undirected) {
+                at = cursor.getAndIncrement(to);
+                targets[at] = from;
+                costs[at] = cost;
+            }
+        }, pool);
+
+        // slot order depends on thread timing | sort every adjacency to make it canonical
+        pool.invoke(new ParallelRange(0, n, ParallelRange.grainFor(n, pool.getParallelism()), (lo, hi) -> {
+            long[] keys = new long[16];
+            for(int v = lo; v < hi; v++) {
+                int from = offsets[v], size = offsets[v + 1] - from;
+                if(size < 2)
+                    continue;
+                if(size > keys.length)
+                    keys = new long[Math.max(size, keys.length << 1)];
+                for(int i = 0; i < size; i++)
+                    keys[i] = ((long) targets[from + i] << 32) | (costs[from + i] & 0xffffffffL);
+                Arrays.sort(keys, 0, size);
+                for(int i = 0; i < size; i++) {
+                    targets[from + i] = (int) (keys[i] >>> 32);
+                    costs[from + i] = (int) keys[i];
+                }
+            }
+        }));
+
+        return CSRGraph.fromArrays(n, offsets, targets, costs);
+    }
+
+
+    // number of edges, one streaming pass
+    public long count(ForkJoinPool pool) {
+        LongAdder count = new LongAdder();
+        forEach((from, to, cost) -> count.increment(), pool);
+        return count.sum();
+    }
+
+
+    /* ----------------------------------- random numbers ----------------------------------- */
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+
+    // counter based stream | seek(unit) starts the stream of that unit
+    static class Rng {
+        private final long seed;
+        private long state;
+
+        Rng(long seed) { this.seed = mix(seed); }
+
+        void seek(long unit) {
+            state = mix(seed ^ mix(unit * GOLDEN_GAMMA + 1));
+        }
+
+        long nextLong() {
+            return mix(state += GOLDEN_GAMMA);
+        }
+
+        // uniform in [0, bound)
+        int nextInt(int bound) {
+            return (int) (((nextLong() >>> 32) * bound) >>> 32);
+        }
+
+        double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // same seed --> same graph, whatever the pool
+        CSRGraph rmat = rmat(16, 1 << 20, 7).build(pool);
+        CSRGraph again = rmat(16, 1 << 20, 7).build(new ForkJoinPool(3));
+        System.out.printf("rmat:       V=%d, E=%d, max degree %d, same on 3 threads: %b\n", rmat.numOfNodes(),
+            rmat.numOfEdges(), maxDegree(rmat), Arrays.equals(rmat.targets(), again.targets()) && Arrays.equals(rmat.costs(), again.costs()));
+
+        CSRGraph er = erdosRenyi(1 << 16, 1 << 20, 7).build(pool);
+        System.out.printf("erdosRenyi: V=%d, E=%d, max degree %d\n", er.numOfNodes(), er.numOfEdges(), maxDegree(er));
+
+        CSRGraph grid = grid(300, 400, 100, 7).build(pool, true);
+        System.out.printf("grid:       V=%d, E=%d\n", grid.numOfNodes(), grid.numOfEdges());
+
+        CSRGraph geometric = geometric(50_000, 0.01, 7).build(pool, true);
+        System.out.printf("geometric:  V=%d, E=%d, bridges %d\n",
+            geometric.numOfNodes(), geometric.numOfEdges(), new Bridges(geometric).findBridges(Bridges.Engine.SEQUENTIAL).size());
+
+        CSRGraph dag = layeredDag(100, 1000, 4, 7).build(pool);
+        System.out.printf("layeredDag: V=%d, E=%d, farthest node from 0 at cost %.0f\n", dag.numOfNodes(), dag.numOfEdges(),
+            max(TopologicalSort.dagShortestPath(dag, 0)));
+
+        CSRGraph eulerian = eulerian(100_000, 3, 7).build(pool);
+        int[] circuit = new EulerianPath(eulerian).getEulerianPath();
+        System.out.printf("eulerian:   V=%d, E=%d, circuit of %d nodes, closed: %b\n", eulerian.numOfNodes(),
+            eulerian.numOfEdges(), circuit.length, circuit[0] == circuit[circuit.length - 1]);
+
+        ParallelTSP tsp = new ParallelTSP(0, completeMetric(14, 7));
+        System.out.printf("metric TSP: 14 cities, tour cost %.2f\n", tsp.getTourCost());
+
+        // streamed only, never stored | timings are in Benchmark (java Benchmark gen)
+        long edges = rmat(24, 1L << 25, 7).count(pool);
+        System.out.printf("streamed %d R-MAT edges\n", edges);
+    }
+
+
+    private static int maxDegree(CSRGraph graph) {
+        int best = 0;
+        for(int v = 0; v < graph.numOfNodes(); v++)
+            best = Math.max(best, graph.degree(v));
+        return best;
+    }
+
+    private static double max(double[] values) {
+        double best = 0;
+        for(double value : values)
+            if(value != Double.POSITIVE_INFINITY)
+                best = Math.max(best, value);
+        return best;
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+rmat:       V=65536, E=1048576, max degree 13126, same on 3 threads: true
+erdosRenyi: V=65536, E=1048576, max degree 36
+grid:       V=120000, E=478600
+geometric:  V=50000, E=777184, bridges 0
+layeredDag: V=100000, E=396000, farthest node from 0 at cost 1302
+eulerian:   V=100000, E=300000, circuit of 300001 nodes, closed: true
+metric TSP: 14 cities, tour cost 3679.43
+streamed 33554432 R-MAT edges
+*/
@@ -0,0 +1,502 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Graph I/O - loads CSRGraphs from files without a per edge object or a per line String.
+Three formats:
+ - text edge list  "from to [cost]" per line, blanks / tabs between fields, cost defaults to 1,
+                   lines starting with '#' or '%' are comments
+ - binary edge list header (magic, n, m, flags) + int records (from, to[, cost])
+ - graph image     header (magic, n, m, 0) + offsets[n + 1] + targets[m] + costs[m], the CSR arrays as is
+
+Text: the file is memory mapped and cut into chunks at line starts, every chunk is parsed by
+its own ForkJoin task straight from the mapped bytes into int arrays. Edges are then placed
+with one counting sort (no concatenation of the chunks), in file order, exactly like
+CSRGraph.Builder would place them.
+Binary edge list: records are split across the pool and decoded from mapped int views.
+Graph image: a few bulk copies from the mapping into the arrays, no parsing and no sorting,
+so a prebuilt graph loads about as fast as the disk hands out its bytes.
+
+Binary files use the native byte order of the machine that wrote them, a file from the
+other byte order fails the magic check. Every mapping stays below 2 GB.
+
+time complexity: O(file size + V + E), parsing / decoding split across the pool
+*/
+
+class GraphIO {
+
+    private static final int EDGE_LIST_MAGIC = 0x47454c01;     // "GEL" + version 1
+    private static final int IMAGE_MAGIC = 0x43535201;         // "CSR" + version 1
+    private static final int HEADER_INTS = 4;
+    private static final int HAS_COSTS = 1;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;    // one mapping must stay below 2 GB
+    private static final int CHUNKS_PER_WORKER = 4;
+
+
+    private GraphIO() {}
+
+
+    /* ---------------------------------- text edge list ---------------------------------- */
+
+    // n <= 0 --> number of nodes is the largest id + 1 | undirected adds both directions like connectEdge
+    public static CSRGraph readEdgeList(Path file, int n, boolean undirected, ForkJoinPool pool) throws IOException {
+        EdgeChunk[] chunks;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+            chunks = new EdgeChunk[bounds.length - 1];
+
+            // mappings stay valid after the channel is closed, the pages are read by the tasks
+            MappedByteBuffer[] mapped = new MappedByteBuffer[chunks.length];
+            for(int c = 0; c < chunks.length; c++)
+                mapped[c] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], bounds[c + 1] - bounds[c]);
+
+            pool.invoke(new ParallelRange(0, chunks.length, 1, (lo, hi) -> {
+                for(int c = lo; c < hi; c++)
+                    chunks[c] = parseText(mapped[c], bounds[c]);
+            }));
+        }
+
+        long edges = 0;
+        int maxId = -1;
+        for(EdgeChunk chunk : chunks) {
+            if(chunk.errorAt >= 0)
+                throw new IOException("Malformed edge list at byte " + chunk.errorAt + ": " + file);
+            edges += chunk.size;
+            maxId = Math.max(maxId, chunk.maxId);
+        }
+
+        return build(n <= 0 ? maxId + 1 : n, maxId, edges, chunks, undirected);
+    }
+
+
+    public static void writeEdgeList(Path file, CSRGraph graph) throws IOException {
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        try(BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("# " + graph.numOfNodes() + " nodes, " + graph.numOfEdges() + " edges\n");
+            for(int from = 0; from < graph.numOfNodes(); from++) {
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    writer.write(Integer.toString(from));
+                    writer.write(' ');
+                    writer.write(Integer.toString(targets[e]));
+                    writer.write(' ');
+                    writer.write(Integer.toString(costs[e]));
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+
+    // chunk c is [bounds[c], bounds[c + 1]), every bound except the last is a line start
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long count = Math.max((long) parallelism * CHUNKS_PER_WORKER, (size + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+        count = Math.max(1, Math.min(count, size));
+        long step = (size + count - 1) / Math.max(1, count);
+
+        long[] bounds = new long[(int) count + 1];
+        int used = 1;
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        for(int c = 1; c < count; c++) {
+            long at = Math.max(bounds[used - 1], c * step);
+            at = nextLineStart(channel, at, window);
+            if(at >= size)
+                break;
+            if(at > bounds[used - 1])
+                bounds[used++] = at;
+        }
+        bounds[used++] = size;
+        return Arrays.copyOf(bounds, used);
+    }
+
+
+    // first byte after the next '\n' at or after `at`, size of the file when there is none
+    private static long nextLineStart(FileChannel channel, long at, ByteBuffer window) throws IOException {
+        // a bound exactly on a line start stays there
+        if(at > 0) {
+            window.clear().limit(1);
+            if(channel.read(window, at - 1) == 1 && window.get(0) == '\n')
+                return at;
+        }
+
+        while(true) {
+            window.clear();
+            int read = channel.read(window, at);
+            if(read <= 0)
+                return channel.size();
+            for(int i = 0; i < read; i++)
+                if(window.get(i) == '\n')
+                    return at + i + 1;
+            at += read;
+        }
+    }
+
+
+    // parses one chunk, stops at the first malformed line and records where it is
+    private static EdgeChunk parseText(ByteBuffer bytes, long base) {
+        int limit = bytes.limit(), pos = 0;
+        EdgeChunk chunk = new EdgeChunk(Math.max(16, limit / 16));
+        long[] fields = new long[3];
+
+        while(pos < limit) {
+            byte b = bytes.get(pos);
+            if(b == '#' || b == '%') {
+                while(pos < limit && bytes.get(pos) != '\n')
+                    pos++;
+                pos++;
+                continue;
+            }
+
+            int count = 0, lineStart = pos;
+            while(pos < limit && (b = bytes.get(pos)) != '\n') {
+                if(b == ' ' || b == '\t' || b == '\r') {
+                    pos++;
+                    continue;
+                }
+                if(count == 3) {
+                    chunk.errorAt = base + pos;
+                    return chunk;
+                }
+
+                boolean negative = b == '-';
+                if(negative)
+                    pos++;
+                long value = 0;
+                int digits = 0;
+                while(pos < limit && (b = bytes.get(pos)) >= '0' && b <= '9' && value <= Integer.MAX_VALUE) {
+                    value = value * 10 + (b - '0');
+                    pos++;
+                    digits++;
+                }
+
+                // field must end on a blank or the end of the line
+                boolean ends = pos == limit || b == ' ' || b == '\t' || b == '\r' || b == '\n';
+                if(digits == 0 || !ends || value > Integer.MAX_VALUE || (negative && count < 2)) {
+                    chunk.errorAt = base + pos;
+                    return chunk;
+                }
+                fields[count++] = negative ? -value : value;
+            }
+            pos++;
+
+            // blank line
+            if(count == 0)
+                continue;
+            if(count == 1) {
+                chunk.errorAt = base + lineStart;
+                return chunk;
+            }
+            chunk.add((int) fields[0], (int) fields[1], count == 3 ? (int) fields[2] : 1);
+        }
+
+        return chunk;
+    }
+
+
+    /* --------------------------------- binary edge list --------------------------------- */
+
+    public static void writeBinaryEdgeList(Path file, CSRGraph graph) throws IOException {
+        int n = graph.numOfNodes(), m = graph.numOfEdges();
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+
+        // segments hold whole records, written straight from the CSR arrays
+        int recordsPerSegment = (int) (MAX_SEGMENT_BYTES / 12);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int from = 0;
+            for(int first = 0; first < m; first += recordsPerSegment) {
+                int records = Math.min(recordsPerSegment, m - first);
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE,
+                    4L * HEADER_INTS + 12L * first, 12L * records);
+                IntBuffer segment = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+                for(int e = first; e < first + records; e++) {
+                    while(offsets[from + 1] <= e)
+                        from++;
+                    segment.put(from).put(targets[e]).put(costs[e]);
+                }
+                mapped.force();
+            }
+            writeHeader(channel, EDGE_LIST_MAGIC, n, m, HAS_COSTS);
+        }
+    }
+
+
+    public static CSRGraph readBinaryEdgeList(Path file, boolean undirected, ForkJoinPool pool) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            IntBuffer header = readHeader(channel, EDGE_LIST_MAGIC, file);
+            int n = header.get(1), m = header.get(2);
+            int recordInts = (header.get(3) & HAS_COSTS) != 0 ? 3 : 2;
+            if(n < 0 || m < 0 || channel.size() != 4L * HEADER_INTS + 4L * recordInts * m)
+                throw new IOException("Truncated edge list: " + file);
+
+            // segments hold whole records
+            int recordsPerSegment = (int) (MAX_SEGMENT_BYTES / (4L * recordInts));
+            IntBuffer[] segments = new IntBuffer[(m + recordsPerSegment - 1) / recordsPerSegment];
+            for(int s = 0; s < segments.length; s++) {
+                long first = (long) s * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, m - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    4L * HEADER_INTS + 4L * recordInts * first, 4L * recordInts * records)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+
+            int total = edgeCount(m, undirected);
+            int[] from = new int[total], to = new int[total], cost = new int[total];
+            int stride = undirected ? 2 : 1;
+            AtomicInteger badRecord = new AtomicInteger(-1);
+
+            pool.invoke(new ParallelRange(0, m, ParallelRange.grainFor(m, pool.getParallelism()), (lo, hi) -> {
+                for(int i = lo; i < hi; i++) {
+                    IntBuffer segment = segments[i / recordsPerSegment];
+                    int at = (i % recordsPerSegment) * recordInts;
+                    int u = segment.get(at), v = segment.get(at + 1), c = recordInts == 3 ? segment.get(at + 2) : 1;
+                    if(u < 0 || u >= n || v < 0 || v >= n) {
+                        badRecord.compareAndSet(-1, i);
+                        return;
+                    }
+
+                    int k = stride * i;
+                    from[k] = u;
+                    to[k] = v;
+                    cost[k] = c;
+                    if(undirected) {
+                        from[k + 1] = v;
+                        to[k + 1] = u;
+                        cost[k + 1] = c;
+                    }
+                }
+            }));
+
+            if(badRecord.get() >= 0)
+                throw new IOException("Node id out of range in record " + badRecord.get() + ": " + file);
+            return CSRGraph.fromEdges(n, total, from, to, cost);
+        }
+    }
+
+
+    /* ----------------------------------- graph image ----------------------------------- */
+
+    public static void saveImage(Path file, CSRGraph graph) throws IOException {
+        int n = graph.numOfNodes(), m = graph.numOfEdges();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 4L * HEADER_INTS;
+            position = writeInts(channel, position, graph.offsets(), 0, n + 1);
+            position = writeInts(channel, position, graph.targets(), 0, m);
+            writeInts(channel, position, graph.costs(), 0, m);
+            writeHeader(channel, IMAGE_MAGIC, n, m, 0);
+        }
+    }
+
+
+    public static CSRGraph loadImage(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            IntBuffer header = readHeader(channel, IMAGE_MAGIC, file);
+            int n = header.get(1), m = header.get(2);
+            if(n < 0 || m < 0 || channel.size() != 4L * (HEADER_INTS + n + 1 + 2L * m))
+                throw new IOException("Truncated graph image: " + file);
+
+            int[] offsets = new int[n + 1], targets = new int[m], costs = new int[m];
+            long position = 4L * HEADER_INTS;
+            position = readInts(channel, position, offsets);
+            position = readInts(channel, position, targets);
+            readInts(channel, position, costs);
+
+            return CSRGraph.fromArrays(n, offsets, targets, costs);
+        }
+    }
+
+
+    /* ------------------------------------- helpers ------------------------------------- */
+
+    // counting sort straight from the parsed chunks, chunk order == file order
+    private static CSRGraph build(int n, int maxId, long edges, EdgeChunk[] chunks, boolean undirected) throws IOException {
+        if(maxId >= n)
+            throw new IOException("Node id " + maxId + " out of range for " + n + " nodes");
+        int m = edgeCount(edges, undirected);
+
+        int[] offsets = new int[n + 1];
+        for(EdgeChunk chunk : chunks) {
+            for(int i = 0; i < chunk.size; i++) {
+                offsets[chunk.from[i] + 1]++;
+                if(undirected)
+                    offsets[chunk.to[i] + 1]++;
+            }
+        }
+        for(int v = 0; v < n; v++)
+            offsets[v + 1] += offsets[v];
+
+        int[] targets = new int[m], costs = new int[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for(EdgeChunk chunk : chunks) {
+            for(int i = 0; i < chunk.size; i++) {
+                int u = chunk.from[i], v = chunk.to[i], c = chunk.cost[i];
+                int at = cursor[u]++;
+                targets[at] = v;
+                costs[at] = c;
+                if(undirected) {
+                    at = cursor[v]++;
+                    targets[at] = u;
+                    costs[at] = c;
+                }
+            }
+        }
+
+        return CSRGraph.fromArrays(n, offsets, targets, costs);
+    }
+
+
+    private static int edgeCount(long edges, boolean undirected) throws IOException {
+        long total = undirected ? 2 * edges : edges;
+        if(total > Integer.MAX_VALUE - 8)
+            throw new IOException("Too many edges for a CSRGraph: " + total);
+        return (int) total;
+    }
+
+
+    // header goes last, a crash half way leaves a file that the loader rejects
+    private static void writeHeader(FileChannel channel, int magic, int n, int m, int flags) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4L * HEADER_INTS);
+        IntBuffer ints = header.order(ByteOrder.nativeOrder()).asIntBuffer();
+        ints.put(1, n);
+        ints.put(2, m);
+        ints.put(3, flags);
+        ints.put(0, magic);
+        header.force();
+    }
+
+
+    private static IntBuffer readHeader(FileChannel channel, int magic, Path file) throws IOException {
+        if(channel.size() < 4L * HEADER_INTS)
+            throw new IOException("Not a graph file: " + file);
+
+        IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4L * HEADER_INTS)
+            .order(ByteOrder.nativeOrder()).asIntBuffer();
+        if(header.get(0) != magic)
+            throw new IOException("Not a graph file: " + file);
+        return header;
+    }
+
+
+    // bulk copy through mappings of at most MAX_SEGMENT_BYTES, returns the position after the data
+    private static long writeInts(FileChannel channel, long position, int[] values, int from, int length) throws IOException {
+        int perSegment = (int) (MAX_SEGMENT_BYTES / 4);
+        for(int done = 0; done < length; ) {
+            int count = Math.min(perSegment, length - done);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, position + 4L * done, 4L * count);
+            mapped.order(ByteOrder.nativeOrder()).asIntBuffer().put(values, from + done, count);
+            mapped.force();
+            done += count;
+        }
+        return position + 4L * length;
+    }
+
+
+    private static long readInts(FileChannel channel, long position, int[] values) throws IOException {
+        int perSegment = (int) (MAX_SEGMENT_BYTES / 4);
+        for(int done = 0; done < values.length; ) {
+            int count = Math.min(perSegment, values.length - done);
+            channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * done, 4L * count)
+                .order(ByteOrder.nativeOrder()).asIntBuffer().get(values, done, count);
+            done += count;
+        }
+        return position + 4L * values.length;
+    }
+
+
+    // edges of one text chunk, parallel int arrays
+    private static class EdgeChunk {
+        private int[] from, to, cost;
+        private int size, maxId = -1;
+        private long errorAt = -1;
+
+        EdgeChunk(int capacity) {
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.cost = new int[capacity];
+        }
+
+        void add(int u, int v, int c) {
+            if(size == from.length) {
+                from = Arrays.copyOf(from, size << 1);
+                to = Arrays.copyOf(to, size << 1);
+                cost = Arrays.copyOf(cost, size << 1);
+            }
+            from[size] = u;
+            to[size] = v;
+            cost[size++] = c;
+            maxId = Math.max(maxId, Math.max(u, v));
+        }
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        // sparse random graph, written once per format and read back
+        final int n = 200_000, m = 1_000_000;
+        Random random = new Random(18);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int i = 0; i < m; i++)
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(100));
+        CSRGraph graph = builder.build();
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Path text = Files.createTempFile("graph", ".txt");
+        Path binary = Files.createTempFile("graph", ".gel");
+        Path image = Files.createTempFile("graph", ".csr");
+        try {
+            writeEdgeList(text, graph);
+            writeBinaryEdgeList(binary, graph);
+            saveImage(image, graph);
+
+            // timings are in Benchmark (java Benchmark io)
+            CSRGraph fromText = readEdgeList(text, n, false, pool);
+            CSRGraph fromBinary = readBinaryEdgeList(binary, false, pool);
+            CSRGraph fromImage = loadImage(image);
+
+            System.out.printf("text edge list:   %d MB, same graph: %b\n", Files.size(text) >> 20, sameGraph(graph, fromText));
+            System.out.printf("binary edge list: %d MB, same graph: %b\n", Files.size(binary) >> 20, sameGraph(graph, fromBinary));
+            System.out.printf("graph image:      %d MB, same graph: %b\n", Files.size(image) >> 20, sameGraph(graph, fromImage));
+
+            // undirected read == connectEdge for every line
+            Files.write(text, "# triangle with a tail\n0 1 4\n1 2\n2 0 7\n\n2 3 1\n".getBytes());
+            CSRGraph undirected = readEdgeList(text, 0, true, pool);
+            CSRGraph expected = new CSRGraph.Builder(4)
+                .connectEdge(0, 1, 4).connectEdge(1, 2).connectEdge(2, 0, 7).connectEdge(2, 3, 1).build();
+            System.out.println("undirected V=" + undirected.numOfNodes() + ", E=" + undirected.numOfEdges()
+                + ", same as connectEdge: " + sameGraph(expected, undirected));
+        }
+        finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+            Files.deleteIfExists(image);
+        }
+    }
+
+
+    private static boolean sameGraph(CSRGraph a, CSRGraph b) {
+        return a.numOfNodes() == b.numOfNodes()
+            && Arrays.equals(a.offsets(), b.offsets())
+            && Arrays.equals(a.targets(), b.targets())
+            && Arrays.equals(a.costs(), b.costs());
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+text edge list:   15 MB, same graph: true
+binary edge list: 11 MB, same graph: true
+graph image:      8 MB, same graph: true
+undirected V=4, E=8, same as connectEdge: true
+*/
@@ -0,0 +1,310 @@
+import java.util.*;
+
+/* Incremental Strongly Connected Components - keeps SCCs current while edges are inserted.
+Starts from TarjansSCC, then maintains a topological order ord[] of the condensation
+(Pearce & Kelly) and merges components when an insertion closes a cycle.
+
+addEdge(u, v), cu = component of u, cv = component of v
+ - cu == cv or ord[cu] < ord[cv]  --> order still valid, O(1)
+ - ord[cu] > ord[cv]              --> only components with lb = ord[cv] <= ord <= ub = ord[cu] can break
+       F = reachable from cv inside [lb, ub],  B = reaching cu inside [lb, ub]
+       M = F ∩ B is the new SCC (empty when no cycle formed, merged with union find)
+       B \ M, M, F \ M take the sorted ord slots of B ∪ F in that order
+Work per insertion is bounded by the affected region, not by V + E, so a stream of
+insertions that mostly respects the order costs little.
+
+getSCC() --> lows-style labels, every node of a component carries the same label
+(the union find root of the component)
+*/
+
+class IncrementalSCC {
+
+    private final int n;
+    private final int[] parent, size;       // union find over nodes
+    private final int[] ord;                // root --> position in topological order
+    private final IntList[] out, in;        // root --> edges, targets are any node of a component
+    private int sccCount;
+
+    // search workspace, marks compare against the current stamp
+    private final int[] forwardMark, backwardMark, stack;
+    private int stamp;
+
+
+    public IncrementalSCC(CSRGraph graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be Null");
+
+        this.n = graph.numOfNodes();
+        this.parent = new int[n];
+        this.size = new int[n];
+        this.ord = new int[n];
+        this.out = new IntList[n];
+        this.in = new IntList[n];
+        this.forwardMark = new int[n];
+        this.backwardMark = new int[n];
+        this.stack = new int[n];
+
+        TarjansSCC tarjan = new TarjansSCC(graph);
+        int[] comp = tarjan.getComponentIds();
+        this.sccCount = tarjan.getSccCount();
+
+        // first node of every component is its root
+        int[] root = new int[sccCount];
+        Arrays.fill(root, -1);
+        for(int v = 0; v < n; v++) {
+            if(root[comp[v]] == -1)
+                root[comp[v]] = v;
+            parent[v] = root[comp[v]];
+            size[root[comp[v]]]++;
+        }
+
+        // Tarjan completes sinks first, so reversed completion order is topological
+        for(int c = 0; c < sccCount; c++) {
+            int r = root[c];
+            ord[r] = sccCount - 1 - c;
+            out[r] = new IntList();
+            in[r] = new IntList();
+        }
+
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        for(int from = 0; from < n; from++) {
+            for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                int to = targets[e];
+                if(comp[from] != comp[to]) {
+                    out[parent[from]].add(to);
+                    in[parent[to]].add(from);
+                }
+            }
+        }
+    }
+
+
+    public int getSccCount() { return sccCount; }
+
+    public boolean sameComponent(int u, int v) { return find(u) == find(v); }
+
+    // label of the component of v, O(α(V))
+    public int component(int v) { return find(v); }
+
+
+    // O(V) snapshot of the current labels
+    public int[] getSCC() {
+        int[] labels = new int[n];
+        for(int v = 0; v < n; v++)
+            labels[v] = find(v);
+        return labels;
+    }
+
+
+    // returns true when the edge merged components
+    public boolean addEdge(int from, int to) {
+        if(from < 0 || from >= n || to < 0 || to >= n)
+            throw new IllegalArgumentException("Edge " + from + " -> " + to + " is out of range");
+
+        int cu = find(from), cv = find(to);
+        if(cu == cv)
+            return false;
+
+        out[cu].add(to);
+        in[cv].add(from);
+        if(ord[cu] < ord[cv])
+            return false;
+
+        int lb = ord[cv], ub = ord[cu];
+        if(++stamp == 0) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            stamp = 1;
+        }
+
+        int[] forward = search(cv, out, forwardMark, lb, ub);
+        int[] backward = search(cu, in, backwardMark, lb, ub);
+        boolean cycle = forwardMark[cu] == stamp;
+
+        // old slots of the whole region, handed out again in sorted order
+        int[] slots = new int[forward.length + backward.length];
+        int numOfSlots = 0;
+        for(int c : forward)
+            slots[numOfSlots++] = ord[c];
+        for(int c : backward)
+            if(forwardMark[c] != stamp)
+                slots[numOfSlots++] = ord[c];
+        Arrays.sort(slots, 0, numOfSlots);
+
+        int next = 0;
+        for(int c : sortByOrd(backward, true))
+            ord[c] = slots[next++];
+
+        if(cycle) {
+            int merged = -1;
+            for(int c : backward) {
+                if(forwardMark[c] == stamp)
+                    merged = merged == -1 ? c : union(merged, c);
+            }
+            ord[merged] = slots[next++];
+        }
+
+        int[] onlyForward = sortByOrd(forward, false);
+        next = numOfSlots - onlyForward.length;
+        for(int c : onlyForward)
+            ord[c] = slots[next++];
+
+        return cycle;
+    }
+
+
+    // components reachable from `start` through `edges`, ord kept inside [lb, ub]
+    private int[] search(int start, IntList[] edges, int[] mark, int lb, int ub) {
+        IntList found = new IntList();
+        int top = 0;
+        stack[top++] = start;
+        mark[start] = stamp;
+
+        while(top > 0) {
+            int at = stack[--top];
+            found.add(at);
+            IntList list = edges[at];
+            for(int i = 0; i < list.size; i++) {
+                int c = find(list.get(i));
+                // edge became internal by a merge | drop it, every edge is dropped at most once
+                if(c == at) {
+                    list.removeAt(i--);
+                    continue;
+                }
+                if(mark[c] == stamp || ord[c] < lb || ord[c] > ub)
+                    continue;
+                mark[c] = stamp;
+                stack[top++] = c;
+            }
+        }
+
+        return Arrays.copyOf(found.items, found.size);
+    }
+
+
+    // components of `nodes` not in the other search, by current ord
+    private int[] sortByOrd(int[] nodes, boolean backward) {
+        int[] otherMark = backward ? forwardMark : backwardMark;
+        long[] keys = new long[nodes.length];
+        int count = 0;
+        for(int c : nodes)
+            if(otherMark[c] != stamp)
+                keys[count++] = ((long) ord[c] << 32) | c;
+        Arrays.sort(keys, 0, count);
+
+        int[] sorted = new int[count];
+        for(int i = 0; i < count; i++)
+            sorted[i] = (int) keys[i];
+        return sorted;
+    }
+
+
+    private int find(int v) {
+        int root = v;
+        while(parent[root] != root)
+            root = parent[root];
+
+        // path compression
+        while(parent[v] != root) {
+            int next = parent[v];
+            parent[v] = root;
+            v = next;
+        }
+        return root;
+    }
+
+
+    // union by size, smaller edge lists are appended to the larger ones
+    private int union(int a, int b) {
+        if(size[a] < size[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+
+        parent[b] = a;
+        size[a] += size[b];
+        out[a].addAll(out[b]);
+        in[a].addAll(in[b]);
+        out[b] = in[b] = null;
+        sccCount--;
+        return a;
+    }
+
+
+    // growable int array | merged lists may hold edges that became internal
+    private static class IntList {
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int value) {
+            if(size == items.length)
+                items = Arrays.copyOf(items, size << 1);
+            items[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if(size + other.size > items.length)
+                items = Arrays.copyOf(items, Math.max(size + other.size, size << 1));
+            System.arraycopy(other.items, 0, items, size, other.size);
+            size += other.size;
+        }
+
+        int get(int i) { return items[i]; }
+
+        // order is not kept | last item takes the free slot
+        void removeAt(int i) {
+            items[i] = items[--size];
+        }
+    }
+
+
+    public static void main(String[] args) {
+        // chain 0 -> 1 -> ... -> 7, every node its own SCC
+        CSRGraph.Builder builder = new CSRGraph.Builder(8);
+        for(int v = 0; v + 1 < 8; v++)
+            builder.addEdge(v, v + 1);
+        IncrementalSCC scc = new IncrementalSCC(builder.build());
+        System.out.println("number of SCC:- " + scc.getSccCount());
+
+        System.out.println("add 5 -> 2, merged: " + scc.addEdge(5, 2) + ", SCC:- " + scc.getSccCount());
+        System.out.println("add 0 -> 6, merged: " + scc.addEdge(0, 6) + ", SCC:- " + scc.getSccCount());
+        System.out.println("add 7 -> 4, merged: " + scc.addEdge(7, 4) + ", SCC:- " + scc.getSccCount());
+        System.out.println("3 and 7 together: " + scc.sameComponent(3, 7) + ", 1 and 7 together: " + scc.sameComponent(1, 7));
+
+        // stream of random insertions, checked against Tarjan from scratch at the end
+        final int n = 20_000, inserts = 40_000;
+        Random random = new Random(17);
+        CSRGraph.Builder base = new CSRGraph.Builder(n);
+        for(int i = 0; i < n; i++)
+            base.addEdge(random.nextInt(n), random.nextInt(n));
+        IncrementalSCC incremental = new IncrementalSCC(base.build());
+
+        for(int i = 0; i < inserts; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            base.addEdge(u, v);
+            incremental.addEdge(u, v);
+        }
+
+        TarjansSCC tarjan = new TarjansSCC(base.build());
+        int[] expected = tarjan.getSCC(), actual = incremental.getSCC();
+        Map<Integer, Integer> mapping = new HashMap<>();
+        boolean same = tarjan.getSccCount() == incremental.getSccCount();
+        for(int v = 0; v < n && same; v++) {
+            Integer label = mapping.putIfAbsent(expected[v], actual[v]);
+            same = label == null || label == actual[v];
+        }
+        System.out.println("after " + inserts + " insertions SCC:- " + incremental.getSccCount() + ", same as Tarjan: " + same);
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+number of SCC:- 8
+add 5 -> 2, merged: true, SCC:- 5
+add 0 -> 6, merged: false, SCC:- 5
+add 7 -> 4, merged: true, SCC:- 3
+3 and 7 together: true, 1 and 7 together: false
+after 40000 insertions SCC:- 2382, same as Tarjan: true
+*/
@@ -0,0 +1,233 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/* Johnson's algorithm - All-Pairs Shortest Path for sparse graphs with `negative` edge weights.
+1. Add a virtual node q with a 0 cost edge to every node, one BellmanFord (spfa) run from q
+   gives the potential h[v] = d(q, v) <= 0. A node at -inf sits behind a negative cycle --> stop
+2. Reweight every edge: w'(u, v) = w(u, v) + h[u] - h[v] >= 0 (triangle inequality of d(q, .)).
+   Every u -> v path changes by the same h[u] - h[v], so shortest paths stay shortest paths
+3. One Dijkstra per source on the reweighted graph, sources sharded over a ForkJoinPool,
+   d(u, v) = d'(u, v) - h[u] + h[v]
+
+Results go to a ShortestPathStore (off heap or memory mapped), and the query surface is the one
+of FloydWarshall: getCost(start, end) and reconstructPath(start, end).
+
+time complexity: O(V * E) worst case for the potentials + O(V * E * log(V) / P) for the Dijkstra runs,
+against O(V^3) for FloydWarshall | memory: one reweighted copy of the costs, 12 bytes per pair off heap
+*/
+
+class Johnson {
+
+    private final CSRGraph graph;
+    private final int n;
+    private final ForkJoinPool pool;
+    private double[] potential;     // h[v], -inf --> v is reachable from a negative cycle
+    private int numOfNegative;      // nodes at -inf
+    private volatile ShortestPathStore store;
+
+
+    public Johnson(CSRGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public Johnson(CSRGraph graph, ForkJoinPool pool) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+        if(pool == null)
+            throw new IllegalArgumentException("Pool cannot be null");
+
+        this.graph = graph;
+        this.n = graph.numOfNodes();
+        this.pool = pool;
+    }
+
+
+    public int numOfNodes() { return n; }
+
+
+    public synchronized boolean hasNegativeCycle() {
+        computePotentials();
+        return numOfNegative > 0;
+    }
+
+    // nodes reachable from a negative cycle, their costs are -inf from every node that reaches them
+    public synchronized List<Integer> getNegativeCycleNodes() {
+        computePotentials();
+        List<Integer> nodes = new ArrayList<>();
+        for(int v = 0; v < n; v++)
+            if(potential[v] == Double.NEGATIVE_INFINITY)
+                nodes.add(v);
+        return nodes;
+    }
+
+
+    // all pairs into off heap memory, exact doubles
+    public void solve() {
+        try {
+            solve(ShortestPathStore.Precision.DOUBLE, null);
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // all pairs into `file` (null --> off heap only) | store stays valid for queries and can be reopened later
+    public synchronized ShortestPathStore solve(ShortestPathStore.Precision precision, Path file) throws IOException {
+        // nothing new to write
+        if(store != null && store.getPrecision() == precision && file == null)
+            return store;
+
+        if(hasNegativeCycle())
+            throw new IllegalStateException("Graph has a negative cycle reaching " + numOfNegative + " nodes");
+
+        store = ShortestPathStore.fromGraph(reweight(), potential, precision, file, pool);
+        return store;
+    }
+
+
+    public double getCost(int start, int end) {
+        return solved().getCost(start, end);
+    }
+
+    // same contract as FloydWarshall | empty list when `end` is not reachable
+    public List<Integer> reconstructPath(int start, int end) {
+        return solved().reconstructPath(start, end);
+    }
+
+
+    // queries read the store without taking the lock
+    private ShortestPathStore solved() {
+        if(store == null)
+            solve();
+        return store;
+    }
+
+
+    // one spfa run from the virtual node q = n
+    private void computePotentials() {
+        if(potential != null)
+            return;
+
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        int m = graph.numOfEdges();
+        int[] augOffsets = Arrays.copyOf(offsets, n + 2);
+        int[] augTargets = Arrays.copyOf(targets, m + n);
+        int[] augCosts = Arrays.copyOf(costs, m + n);
+        for(int v = 0; v < n; v++)
+            augTargets[m + v] = v;      // q -> v, cost 0
+        augOffsets[n + 1] = m + n;
+
+        double[] dist = new BellmanFord(CSRGraph.fromArrays(n + 1, augOffsets, augTargets, augCosts)).spfa(n);
+        potential = Arrays.copyOf(dist, n);
+        numOfNegative = 0;
+        for(int v = 0; v < n; v++)
+            if(potential[v] == Double.NEGATIVE_INFINITY)
+                numOfNegative++;
+    }
+
+
+    // same offsets / targets, costs w + h[u] - h[v] | potentials are sums of int costs, so are the new costs
+    private CSRGraph reweight() {
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        int[] reweighted = new int[costs.length];
+
+        for(int u = 0; u < n; u++) {
+            for(int e = offsets[u]; e < offsets[u + 1]; e++) {
+                long cost = costs[e] + (long) potential[u] - (long) potential[targets[e]];
+                if(cost > Integer.MAX_VALUE)
+                    throw new IllegalStateException("Reweighted cost does not fit an int: " + cost);
+                reweighted[e] = (int) cost;
+            }
+        }
+
+        return CSRGraph.fromArrays(n, offsets, targets, reweighted);
+    }
+
+
+    // sparse graph with negative edges but no negative cycle | costs shifted by random potentials
+    static CSRGraph negativeGraph(int n, int m, long seed) {
+        CSRGraph base = GraphGenerator.erdosRenyi(n, m, seed).build(ForkJoinPool.commonPool());
+        int[] offsets = base.offsets(), targets = base.targets(), costs = base.costs().clone();
+        Random random = new Random(seed);
+        int[] p = new int[n];
+        for(int v = 0; v < n; v++)
+            p[v] = random.nextInt(60);
+
+        for(int u = 0; u < n; u++)
+            for(int e = offsets[u]; e < offsets[u + 1]; e++)
+                costs[e] += p[u] - p[targets[e]];
+        return CSRGraph.fromArrays(n, offsets, targets, costs);
+    }
+
+    static double[][] toMatrix(CSRGraph graph) {
+        int n = graph.numOfNodes();
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        double[][] matrix = new double[n][n];
+        for(int u = 0; u < n; u++) {
+            Arrays.fill(matrix[u], Double.POSITIVE_INFINITY);
+            matrix[u][u] = 0;
+            for(int e = offsets[u]; e < offsets[u + 1]; e++)
+                matrix[u][targets[e]] = Math.min(matrix[u][targets[e]], costs[e]);
+        }
+        return matrix;
+    }
+
+    private static String formatPath(List<Integer> path) {
+        return path.stream().map(Object::toString).collect(Collectors.joining(" -> "));
+    }
+
+    public static void main(String[] args) {
+        // 800 nodes, 4000 edges, about a tenth of them negative
+        final int n = 800, m = 4_000;
+        CSRGraph graph = negativeGraph(n, m, 24);
+        int negative = 0;
+        for(int cost : graph.costs())
+            if(cost < 0)
+                negative++;
+
+        // timings are in Benchmark (java Benchmark apsp)
+        Johnson johnson = new Johnson(graph);
+        johnson.solve();
+        BlockedFloydWarshall fw = new BlockedFloydWarshall(toMatrix(graph));
+        fw.solve();
+
+        boolean same = true;
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                same &= johnson.getCost(i, j) == fw.getCost(i, j);
+
+        System.out.printf("V=%d, E=%d, %d negative edges\n", n, m, negative);
+        System.out.println("all pair costs match Floyd Warshall: " + same);
+        System.out.printf("cost %d --> %d: %.2f, path %s\n", 0, 5, johnson.getCost(0, 5), formatPath(johnson.reconstructPath(0, 5)));
+
+        // 1 -> 2 -> 1 costs -1 per round, 4 hangs off the cycle, 0 and 3 only lead into it
+        CSRGraph cyclic = new CSRGraph.Builder(5)
+            .addEdge(0, 1, 4).addEdge(1, 2, -3).addEdge(2, 1, 2).addEdge(2, 4, 1).addEdge(3, 0, 1)
+            .build();
+        Johnson broken = new Johnson(cyclic);
+        System.out.println("negative cycle: " + broken.hasNegativeCycle() + ", nodes behind it: " + broken.getNegativeCycleNodes());
+        try {
+            broken.solve();
+        }
+        catch(IllegalStateException e) {
+            System.out.println("solve: " + e.getMessage());
+        }
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+V=800, E=4000, 394 negative edges
+all pair costs match Floyd Warshall: true
+cost 0 --> 5: 251.00, path 0 -> 158 -> 164 -> 420 -> 228 -> 119 -> 5
+negative cycle: true, nodes behind it: [1, 2, 4]
+solve: Graph has a negative cycle reaching 3 nodes
+*/
\ No newline at end of file
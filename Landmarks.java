@@ -0,0 +1,395 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/* ALT (A*, Landmarks, Triangle inequality) preprocessing.
+Picks L landmarks, runs a forward and a reverse Dijkstra from each of them and stores
+d(L, v) and d(v, L) for every node. For any v, t:
+    d(v, t) >= d(L, t) - d(L, v)        d(v, t) >= d(v, L) - d(t, L)
+so the max over all landmarks is an admissible, consistent A* heuristic.
+
+Landmark selection
+ - FARTHEST --> next landmark is the node farthest from the ones picked so far
+ - AVOID    --> grow a shortest path tree from a random root, weight every node by how bad its
+                current lower bound is, walk down the heaviest subtree without a landmark and
+                take its leaf (Goldberg & Harrelson). Slower, usually tighter bounds.
+
+Distance table is a memory mapped file of ints, node major:
+    header | landmark ids | node 0: from_0 .. from_L-1 to_0 .. to_L-1 | node 1: ...
+so one lookup reads one cache line, and a table of many GB is paged in lazily by the OS.
+Lookups go through absolute IntBuffer reads and allocate nothing.
+
+preprocessing: O(L * E * log(V)) Dijkstra work, landmark searches run on a ForkJoinPool
+memory: 8 * L bytes per node
+*/
+
+class Landmarks implements AStar.Heuristic {
+
+    enum Strategy { FARTHEST, AVOID }
+
+    private static final int FILE_MAGIC = 0x414c5401;       // "ALT" + version 1
+    private static final int HEADER_INTS = 3;               // magic, n, L
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;  // one mapping must stay below 2 GB
+    private static final int HEAP_ARITY = 4;
+
+    private final int n, count;
+    private final int[] landmarks;
+    private final int recordInts;           // 2 * L ints per node
+    private final int nodesPerSegment;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] mapped;
+    private final IntBuffer[] segments;     // int views of `mapped`
+
+
+    private Landmarks(int n, int[] landmarks, FileChannel channel, boolean create) throws IOException {
+        this.n = n;
+        this.count = landmarks.length;
+        this.landmarks = landmarks;
+        this.recordInts = 2 * count;
+        this.nodesPerSegment = (int) Math.max(1, MAX_SEGMENT_BYTES / (4L * recordInts));
+
+        // mappings stay valid after the channel is closed
+        FileChannel.MapMode mode = create ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        long position = 4L * (HEADER_INTS + count);
+        this.header = channel.map(mode, 0, position);
+
+        int numOfSegments = Math.max(1, (n + nodesPerSegment - 1) / nodesPerSegment);
+        this.mapped = new MappedByteBuffer[numOfSegments];
+        this.segments = new IntBuffer[numOfSegments];
+        for(int s = 0; s < numOfSegments; s++) {
+            long bytes = 4L * recordInts * Math.min(nodesPerSegment, n - (long) s * nodesPerSegment);
+            mapped[s] = channel.map(mode, position, bytes);
+            segments[s] = mapped[s].order(ByteOrder.nativeOrder()).asIntBuffer();
+            position += bytes;
+        }
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    public int[] getLandmarks() { return landmarks.clone(); }
+
+
+    // preprocesses `count` landmarks and writes the table to `file`
+    public static Landmarks build(CSRGraph graph, int count, Strategy strategy, Path file, ForkJoinPool pool, long seed)
+        throws IOException {
+
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+        if(count <= 0 || count > graph.numOfNodes())
+            throw new IllegalArgumentException("Invalid number of landmarks");
+
+        int n = graph.numOfNodes();
+        CSRGraph reverse = graph.reverse();
+        int[] chosen = new int[count];
+        Arrays.fill(chosen, -1);
+
+        Landmarks table;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            table = new Landmarks(n, chosen, channel, true);
+        }
+
+        if(strategy == Strategy.FARTHEST) {
+            selectFarthest(graph, chosen, new Random(seed));
+            table.fill(graph, reverse, 0, count, pool);
+        }
+        else {
+            // every step needs the bounds of the landmarks picked so far
+            Random random = new Random(seed);
+            for(int i = 0; i < count; i++) {
+                chosen[i] = selectAvoid(graph, table, i, random);
+                table.fill(graph, reverse, i, i + 1, pool);
+            }
+        }
+
+        table.flush();
+        return table;
+    }
+
+
+    public static Landmarks load(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4L * HEADER_INTS)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+
+            if(header.get(0) != FILE_MAGIC)
+                throw new IOException("Not a landmark file: " + file);
+
+            int n = header.get(1), count = header.get(2);
+            IntBuffer ids = channel.map(FileChannel.MapMode.READ_ONLY, 4L * HEADER_INTS, 4L * count)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+            int[] landmarks = new int[count];
+            ids.get(landmarks);
+
+            return new Landmarks(n, landmarks, channel, false);
+        }
+    }
+
+
+    // max over landmarks of both triangle inequality bounds | no allocation
+    @Override
+    public double estimate(int node, int target) {
+        IntBuffer nodeSegment = segments[node / nodesPerSegment];
+        IntBuffer targetSegment = segments[target / nodesPerSegment];
+        int nodeBase = (node % nodesPerSegment) * recordInts;
+        int targetBase = (target % nodesPerSegment) * recordInts;
+
+        int best = 0;
+        for(int i = 0; i < count; i++) {
+            int fromNode = nodeSegment.get(nodeBase + i), fromTarget = targetSegment.get(targetBase + i);
+            if(fromNode != UNREACHABLE && fromTarget != UNREACHABLE)
+                best = Math.max(best, fromTarget - fromNode);
+
+            int toNode = nodeSegment.get(nodeBase + count + i), toTarget = targetSegment.get(targetBase + count + i);
+            if(toNode != UNREACHABLE && toTarget != UNREACHABLE)
+                best = Math.max(best, toNode - toTarget);
+        }
+
+        return best;
+    }
+
+
+    // forward and reverse runs for landmarks [from, to), every run is its own task
+    private void fill(CSRGraph graph, CSRGraph reverse, int from, int to, ForkJoinPool pool) {
+        pool.invoke(new ParallelRange(2 * from, 2 * to, 1, (lo, hi) -> {
+            for(int t = lo; t < hi; t++) {
+                int i = t >> 1;
+                boolean forward = (t & 1) == 0;
+                double[] dist = new Dijkstra(forward ? graph : reverse, HEAP_ARITY).dijkstra(landmarks[i]);
+
+                int column = forward ? i : count + i;
+                for(int v = 0; v < n; v++)
+                    put(v, column, toTableValue(dist[v]));
+            }
+        }));
+    }
+
+
+    private static int toTableValue(double d) {
+        if(d == Double.POSITIVE_INFINITY)
+            return UNREACHABLE;
+        if(d >= UNREACHABLE)
+            throw new IllegalStateException("Landmark distance does not fit the table: " + d);
+        return (int) d;
+    }
+
+
+    private void put(int node, int column, int value) {
+        segments[node / nodesPerSegment].put((node % nodesPerSegment) * recordInts + column, value);
+    }
+
+    private int get(int node, int column) {
+        return segments[node / nodesPerSegment].get((node % nodesPerSegment) * recordInts + column);
+    }
+
+
+    // first landmark is the node farthest from a random one, then maximize the min distance
+    private static void selectFarthest(CSRGraph graph, int[] chosen, Random random) {
+        int n = graph.numOfNodes();
+        Dijkstra dijkstra = new Dijkstra(graph, HEAP_ARITY);
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+
+        int next = farthest(dijkstra.dijkstra(random.nextInt(n)), null);
+        for(int i = 0; i < chosen.length; i++) {
+            chosen[i] = next;
+            double[] dist = dijkstra.dijkstra(next);
+            for(int v = 0; v < n; v++)
+                minDist[v] = Math.min(minDist[v], dist[v]);
+
+            next = farthest(minDist, chosen);
+        }
+    }
+
+
+    // node with the largest finite distance, not yet a landmark
+    private static int farthest(double[] dist, int[] chosen) {
+        int best = -1;
+        for(int v = 0; v < dist.length; v++) {
+            if(dist[v] == Double.POSITIVE_INFINITY || (chosen != null && contains(chosen, v)))
+                continue;
+            if(best == -1 || dist[v] > dist[best])
+                best = v;
+        }
+
+        // everything reachable is taken | any free node will do
+        for(int v = 0; best == -1 && v < dist.length; v++)
+            if(chosen == null || !contains(chosen, v))
+                best = v;
+
+        return best;
+    }
+
+
+    private static boolean contains(int[] items, int value) {
+        for(int item : items)
+            if(item == value)
+                return true;
+        return false;
+    }
+
+
+    private static int selectAvoid(CSRGraph graph, Landmarks table, int picked, Random random) {
+        int n = graph.numOfNodes();
+        if(picked == 0)
+            return farthest(new Dijkstra(graph, HEAP_ARITY).dijkstra(random.nextInt(n)), null);
+
+        Dijkstra dijkstra = new Dijkstra(graph, HEAP_ARITY);
+        int root = random.nextInt(n);
+        double[] dist = dijkstra.dijkstra(root).clone();
+        int[] parent = dijkstra.getPrev().clone();
+
+        // reachable nodes, deepest first so children are done before their parent
+        List<Integer> reachable = new ArrayList<>();
+        for(int v = 0; v < n; v++)
+            if(dist[v] != Double.POSITIVE_INFINITY)
+                reachable.add(v);
+        reachable.sort((a, b) -> Double.compare(dist[b], dist[a]));
+
+        // size(v) = sum of (d(root, u) - lowerBound(root, u)) over the subtree of v,
+        // 0 for subtrees that already hold a landmark
+        double[] size = new double[n];
+        boolean[] hasLandmark = new boolean[n];
+        for(int i = 0; i < picked; i++)
+            hasLandmark[table.landmarks[i]] = true;
+
+        for(int v : reachable) {
+            size[v] += dist[v] - table.lowerBound(root, v, picked);
+            if(hasLandmark[v])
+                size[v] = 0;
+
+            int p = parent[v];
+            if(p != -1) {
+                if(hasLandmark[v])
+                    hasLandmark[p] = true;
+                size[p] += size[v];
+            }
+        }
+
+        // children of every tree node, CSR style
+        int[] childOffsets = new int[n + 1];
+        for(int v : reachable)
+            if(parent[v] != -1)
+                childOffsets[parent[v] + 1]++;
+        for(int v = 0; v < n; v++)
+            childOffsets[v + 1] += childOffsets[v];
+        int[] children = new int[childOffsets[n]];
+        int[] cursor = Arrays.copyOf(childOffsets, n);
+        for(int v : reachable)
+            if(parent[v] != -1)
+                children[cursor[parent[v]]++] = v;
+
+        // walk down the heaviest subtree until a leaf
+        int at = root;
+        while(true) {
+            int heaviest = -1;
+            for(int c = childOffsets[at]; c < childOffsets[at + 1]; c++) {
+                int child = children[c];
+                if(size[child] > 0 && (heaviest == -1 || size[child] > size[heaviest]))
+                    heaviest = child;
+            }
+            if(heaviest == -1)
+                break;
+            at = heaviest;
+        }
+
+        // whole tree already covered | fall back to farthest
+        int[] taken = Arrays.copyOf(table.landmarks, picked);
+        if(contains(taken, at))
+            return farthest(dist, taken);
+
+        return at;
+    }
+
+
+    // bound from the first `picked` landmarks only, used while the table is being filled
+    private double lowerBound(int node, int target, int picked) {
+        int best = 0;
+        for(int i = 0; i < picked; i++) {
+            int fromNode = get(node, i), fromTarget = get(target, i);
+            if(fromNode != UNREACHABLE && fromTarget != UNREACHABLE)
+                best = Math.max(best, fromTarget - fromNode);
+
+            int toNode = get(node, count + i), toTarget = get(target, count + i);
+            if(toNode != UNREACHABLE && toTarget != UNREACHABLE)
+                best = Math.max(best, toNode - toTarget);
+        }
+        return best;
+    }
+
+
+    // header goes last, a crash half way leaves a file that load() rejects
+    private void flush() {
+        for(MappedByteBuffer buffer : mapped)
+            buffer.force();
+
+        IntBuffer ints = header.order(ByteOrder.nativeOrder()).asIntBuffer();
+        ints.put(1, n);
+        ints.put(2, count);
+        for(int i = 0; i < count; i++)
+            ints.put(HEADER_INTS + i, landmarks[i]);
+        ints.put(0, FILE_MAGIC);
+        header.force();
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        // same W x W grid as the AStar demo
+        final int W = 30, n = W * W;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int r = 0; r < W; r++) {
+            for(int c = 0; c < W; c++) {
+                int v = r * W + c;
+                if(c + 1 < W) builder.connectEdge(v, v + 1, 10 + (v * 7) % 5);
+                if(r + 1 < W) builder.connectEdge(v, v + W, 10 + (v * 3) % 5);
+            }
+        }
+        CSRGraph graph = builder.build();
+        int start = (W / 2) * W, end = start + W - 1;
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Path farthestFile = Files.createTempFile("landmarks-farthest", ".alt");
+        Path avoidFile = Files.createTempFile("landmarks-avoid", ".alt");
+        try {
+            Landmarks farthest = build(graph, 4, Strategy.FARTHEST, farthestFile, pool, 42);
+            Landmarks avoid = build(graph, 4, Strategy.AVOID, avoidFile, pool, 42);
+
+            AStar dijkstra = new AStar(graph, AStar.ZERO);
+            AStar byFarthest = new AStar(graph, farthest);
+            AStar byAvoid = new AStar(graph, avoid);
+            AStar reloaded = new AStar(graph, load(farthestFile));
+
+            System.out.println("farthest landmarks: " + Arrays.toString(farthest.getLandmarks()));
+            System.out.printf("zero heuristic:     cost %.2f, settled %d\n", dijkstra.aStar(start, end), dijkstra.getSettledCount());
+            System.out.printf("farthest landmarks: cost %.2f, settled %d\n", byFarthest.aStar(start, end), byFarthest.getSettledCount());
+            System.out.printf("avoid landmarks:    cost %.2f, settled %d\n", byAvoid.aStar(start, end), byAvoid.getSettledCount());
+            System.out.printf("reloaded from file: cost %.2f, settled %d\n", reloaded.aStar(start, end), reloaded.getSettledCount());
+        }
+        finally {
+            Files.deleteIfExists(farthestFile);
+            Files.deleteIfExists(avoidFile);
+        }
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+farthest landmarks: [0, 899, 29, 464]
+zero heuristic:     cost 347.00, settled 700
+farthest landmarks: cost 347.00, settled 56
+avoid landmarks:    cost 347.00, settled 56
+reloaded from file: cost 347.00, settled 56
+*/
@@ -0,0 +1,198 @@
+import java.util.Arrays;
+
+/* Indexed D-ary min Heap - priority queue over keys 0..maxSize-1 with double priorities.
+Every key is in the heap at most once, so the heap never grows past V nodes and
+decreaseKey replaces the `push a duplicate and skip stale entries` trick of lazy Dijkstra/Prims.
+Everything lives in primitive arrays | insert, decreaseKey and pollMin allocate nothing.
+
+insert / decreaseKey: O(log_d(n)), updateKey: O(d * log_d(n)), pollMin: O(d * log_d(n)), contains / valueOf: O(1)
+d == 2 is a binary heap, wider heaps (d = 4..8) are shallower and friendlier to the cache
+*/
+
+class MinIndexedDHeap {
+
+    private static final int ABSENT = -1;
+
+    private final int d;
+    private int size;
+    private final int[] heap;        // heap position --> key
+    private final int[] pos;         // key --> heap position, ABSENT if key is not in heap
+    private final double[] values;   // key --> priority
+
+
+    public MinIndexedDHeap(int d, int maxSize) {
+        if(d < 2)
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        if(maxSize <= 0)
+            throw new IllegalArgumentException("Heap size must be positive");
+
+        this.d = d;
+        this.heap = new int[maxSize];
+        this.pos = new int[maxSize];
+        this.values = new double[maxSize];
+        Arrays.fill(pos, ABSENT);
+    }
+
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int key) { return pos[key] != ABSENT; }
+
+    public double valueOf(int key) {
+        if(!contains(key))
+            throw new IllegalArgumentException("Key " + key + " is not in heap");
+
+        return values[key];
+    }
+
+    public int peekMin() {
+        if(isEmpty())
+            throw new IllegalStateException("Heap is empty");
+
+        return heap[0];
+    }
+
+
+    public void insert(int key, double value) {
+        if(contains(key))
+            throw new IllegalArgumentException("Key " + key + " already in heap");
+
+        values[key] = value;
+        pos[key] = size;
+        heap[size] = key;
+        siftUp(size++);
+    }
+
+
+    // only moves the key when value is strictly smaller than the current one
+    public void decreaseKey(int key, double value) {
+        if(!contains(key))
+            throw new IllegalArgumentException("Key " + key + " is not in heap");
+
+        if(value < values[key]) {
+            values[key] = value;
+            siftUp(pos[key]);
+        }
+    }
+
+
+    // moves the key either way, for priorities that can also grow
+    public void updateKey(int key, double value) {
+        if(!contains(key))
+            throw new IllegalArgumentException("Key " + key + " is not in heap");
+
+        double old = values[key];
+        values[key] = value;
+        if(value < old)
+            siftUp(pos[key]);
+        else
+            siftDown(pos[key]);
+    }
+
+
+    // removes min key and returns it | its priority is still readable through lastValue(key)
+    public int pollMin() {
+        int min = peekMin();
+        int last = heap[--size];
+        pos[min] = ABSENT;
+
+        if(size > 0) {
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+
+        return min;
+    }
+
+
+    // priority the key had when it was last inserted / decreased, even after pollMin
+    public double lastValue(int key) {
+        return values[key];
+    }
+
+
+    // O(size) | only keys still in the heap need to be forgotten
+    public void clear() {
+        for(int i = 0; i < size; i++)
+            pos[heap[i]] = ABSENT;
+        size = 0;
+    }
+
+
+    private void siftUp(int i) {
+        int key = heap[i];
+        double value = values[key];
+
+        while(i > 0) {
+            int parent = (i - 1) / d;
+            int parentKey = heap[parent];
+            if(values[parentKey] <= value)
+                break;
+
+            heap[i] = parentKey;
+            pos[parentKey] = i;
+            i = parent;
+        }
+
+        heap[i] = key;
+        pos[key] = i;
+    }
+
+
+    private void siftDown(int i) {
+        int key = heap[i];
+        double value = values[key];
+
+        while(true) {
+            int first = i * d + 1;
+            if(first >= size)
+                break;
+
+            // smallest among the (up to) d children
+            int last = Math.min(first + d, size);
+            int child = first;
+            for(int c = first + 1; c < last; c++) {
+                if(values[heap[c]] < values[heap[child]])
+                    child = c;
+            }
+
+            if(values[heap[child]] >= value)
+                break;
+
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+
+        heap[i] = key;
+        pos[key] = i;
+    }
+
+
+    public static void main(String[] args) {
+        MinIndexedDHeap heap = new MinIndexedDHeap(4, 8);
+        heap.insert(0, 7.0);
+        heap.insert(1, 3.0);
+        heap.insert(2, 5.0);
+        heap.insert(3, 9.0);
+        heap.insert(4, 1.0);
+        heap.decreaseKey(3, 2.0);
+
+        StringBuilder sb = new StringBuilder();
+        while(!heap.isEmpty()) {
+            int key = heap.pollMin();
+            sb.append(String.format("(%d, %.1f) ", key, heap.lastValue(key)));
+        }
+
+        System.out.println("Polled in order: " + sb.toString().trim());
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+Polled in order: (4, 1.0) (3, 2.0) (1, 3.0) (2, 5.0) (0, 7.0)
+*/
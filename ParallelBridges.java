@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/* Parallel Bridges - spanning tree method (Tarjan-Vishkin style), no DFS needed.
+1. Parallel BFS builds a spanning forest, any rooted spanning tree will do
+2. Number the forest in pre order, size[v] = nodes in the subtree of v,
+   so subtree(v) is exactly the pre order interval [pre[v], pre[v] + size[v])
+3. low[v] / high[v] = smallest / largest pre order reachable from subtree(v) by one non tree edge
+4. Tree edge parent(v) - v is a bridge  <=>  low[v] >= pre[v] and high[v] < pre[v] + size[v]
+   (no non tree edge leaves the subtree, so cutting the tree edge disconnects it)
+
+Everything that touches edges (BFS, local low / high) runs on the ForkJoinPool,
+the O(V) passes over the BFS order (sizes, pre order, subtree min / max) are sequential.
+Only the first edge back to the tree parent is the tree edge, parallel edges close a cycle.
+
+time complexity: O(V + E) work
+*/
+
+class ParallelBridges {
+
+    private static final int NO_PARENT = -1;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final CSRGraph graph;
+    private final int n;
+    private final ForkJoinPool pool;
+
+
+    // graph must hold both directions of every undirected edge (see CSRGraph.Builder#connectEdge)
+    public ParallelBridges(CSRGraph graph, ForkJoinPool pool) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        this.graph = graph;
+        this.n = graph.numOfNodes();
+        this.pool = pool;
+    }
+
+
+    // same pairs as Bridges.findBridges(), as (tree parent, child) and in BFS order
+    public List<Bridges.Pair> findBridges() {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        AtomicIntegerArray claimed = new AtomicIntegerArray(n);
+        int[] parent = new int[n];
+        int[] order = new int[n];           // BFS order of the whole forest, parents first
+        int size = 0;
+
+        for(int root = 0; root < n; root++) {
+            if(claimed.get(root) != 0)
+                continue;
+            claimed.set(root, 1);
+            parent[root] = NO_PARENT;
+            order[size] = root;
+            size = bfs(size, size + 1, claimed, parent, order);
+        }
+
+        // subtree sizes, children after their parents in `order`
+        int[] subtree = new int[n];
+        Arrays.fill(subtree, 1);
+        for(int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            if(parent[v] != NO_PARENT)
+                subtree[parent[v]] += subtree[v];
+        }
+
+        // children of every node, CSR style
+        int[] childOffsets = new int[n + 1];
+        for(int v = 0; v < n; v++)
+            if(parent[v] != NO_PARENT)
+                childOffsets[parent[v] + 1]++;
+        for(int v = 0; v < n; v++)
+            childOffsets[v + 1] += childOffsets[v];
+        int[] children = new int[childOffsets[n]];
+        int[] cursor = Arrays.copyOf(childOffsets, n);
+        for(int i = 0; i < n; i++) {
+            int v = order[i];
+            if(parent[v] != NO_PARENT)
+                children[cursor[parent[v]]++] = v;
+        }
+
+        // pre order, every child starts right after the subtrees of its older siblings
+        int[] pre = new int[n];
+        int next = 0;
+        for(int i = 0; i < n; i++) {
+            int v = order[i];
+            if(parent[v] == NO_PARENT) {
+                pre[v] = next;
+                next += subtree[v];
+            }
+            int at = pre[v] + 1;
+            for(int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+                pre[children[c]] = at;
+                at += subtree[children[c]];
+            }
+        }
+
+        // local low / high over non tree edges, the edge heavy part
+        int[] low = new int[n], high = new int[n];
+        pool.invoke(new ParallelRange(0, n, ParallelRange.grainFor(n, pool.getParallelism()), (lo, hi) -> {
+            for(int v = lo; v < hi; v++) {
+                int min = pre[v], max = pre[v];
+                boolean skipped = false;
+                for(int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int to = targets[e];
+                    if(to == parent[v] && !skipped) {
+                        skipped = true;
+                        continue;
+                    }
+                    min = Math.min(min, pre[to]);
+                    max = Math.max(max, pre[to]);
+                }
+                low[v] = min;
+                high[v] = max;
+            }
+        }));
+
+        List<Bridges.Pair> bridges = new ArrayList<>();
+        for(int i = n - 1; i >= 0; i--) {
+            int v = order[i], p = parent[v];
+            if(p == NO_PARENT)
+                continue;
+            low[p] = Math.min(low[p], low[v]);
+            high[p] = Math.max(high[p], high[v]);
+        }
+        for(int i = 0; i < n; i++) {
+            int v = order[i], p = parent[v];
+            if(p != NO_PARENT && low[v] >= pre[v] && high[v] < pre[v] + subtree[v])
+                bridges.add(new Bridges.Pair(p, v));
+        }
+
+        return bridges;
+    }
+
+
+    // level synchronous BFS over order[from, to), appends new nodes, returns the new end
+    private int bfs(int from, int to, AtomicIntegerArray claimed, int[] parent, int[] order) {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+
+        while(from < to) {
+            int levelStart = from, levelEnd = to;
+
+            // small level | one thread expands it
+            if(levelEnd - levelStart < SEQUENTIAL_THRESHOLD) {
+                int end = levelEnd;
+                for(int i = levelStart; i < levelEnd; i++) {
+                    int at = order[i];
+                    for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                        int t = targets[e];
+                        if(claimed.get(t) == 0) {
+                            claimed.set(t, 1);
+                            parent[t] = at;
+                            order[end++] = t;
+                        }
+                    }
+                }
+                from = levelEnd;
+                to = end;
+                continue;
+            }
+
+            AtomicInteger tail = new AtomicInteger(levelEnd);
+            pool.invoke(new ParallelRange(levelStart, levelEnd, ParallelRange.grainFor(levelEnd - levelStart, pool.getParallelism()), (lo, hi) -> {
+                int[] local = new int[64];
+                int count = 0;
+                for(int i = lo; i < hi; i++) {
+                    int at = order[i];
+                    for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                        int t = targets[e];
+                        if(claimed.get(t) != 0 || !claimed.compareAndSet(t, 0, 1))
+                            continue;
+                        parent[t] = at;
+                        if(count == local.length)
+                            local = Arrays.copyOf(local, count << 1);
+                        local[count++] = t;
+                    }
+                }
+                System.arraycopy(local, 0, order, tail.getAndAdd(count), count);
+            }));
+
+            from = levelEnd;
+            to = tail.get();
+        }
+
+        return to;
+    }
+}
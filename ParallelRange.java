@@ -0,0 +1,92 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/* Fork/Join helper - splits index range [lo, hi) in halves until a piece is at most
+`grain` long, then runs the task on that piece. Shared by the parallel engines so every
+one of them schedules work on a ForkJoinPool the same way.
+
+    pool.invoke(new ParallelRange(0, n, 1024, (from, to) -> { ... }));
+
+Per call scratch space (search workspaces, buffers) goes through a Scratch: every leaf takes one
+and hands it back when done, so there are never more than the leaves running at the same time,
+and all of them are garbage once the call returns. A ThreadLocal would pin them to the pool threads.
+
+    Scratch<int[]> buffers = new Scratch<>(() -> new int[n]);
+    pool.invoke(new ParallelRange(0, n, 1024, (from, to) -> {
+        int[] buffer = buffers.take();
+        ...
+        buffers.release(buffer);
+    }));
+*/
+
+class ParallelRange extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    static final class Scratch<T> {
+        private final ConcurrentLinkedQueue<T> free = new ConcurrentLinkedQueue<>();
+        private final Supplier<T> factory;
+        private final AtomicInteger created = new AtomicInteger();
+
+        Scratch(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        // a released one if there is any, else a new one
+        T take() {
+            T item = free.poll();
+            if(item != null)
+                return item;
+            created.incrementAndGet();
+            return factory.get();
+        }
+
+        void release(T item) {
+            free.offer(item);
+        }
+
+        // most ever taken at the same time, all of them stay with the Scratch
+        int created() {
+            return created.get();
+        }
+    }
+
+    private final int lo, hi, grain;
+    private final RangeTask task;
+
+
+    public ParallelRange(int lo, int hi, int grain, RangeTask task) {
+        if(grain <= 0)
+            throw new IllegalArgumentException("Grain must be positive");
+
+        this.lo = lo;
+        this.hi = hi;
+        this.grain = grain;
+        this.task = task;
+    }
+
+
+    // grain that gives every worker of the pool a few pieces to steal
+    static int grainFor(int size, int parallelism) {
+        return Math.max(1, size / (parallelism * 8));
+    }
+
+
+    @Override
+    protected void compute() {
+        if(hi - lo <= grain) {
+            if(hi > lo)
+                task.run(lo, hi);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new ParallelRange(lo, mid, grain, task), new ParallelRange(mid, hi, grain, task));
+    }
+}
@@ -0,0 +1,357 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/* Parallel Strongly Connected Components - trim + forward-backward (FW-BW) with coloring.
+1. Trim: a node with no in or no out edge inside the remaining graph is an SCC on its own.
+   A few parallel passes peel those off (chains hanging off the graph, DAG parts, ...)
+2. FW-BW: every color is one subproblem. Pick a random pivot of color c,
+      FW = nodes reachable from pivot, BW = nodes that reach pivot (both inside color c)
+   FW ∩ BW is the SCC of the pivot, FW \ BW, BW \ FW and the rest can not share an SCC,
+   so each gets a fresh color and becomes an independent ForkJoin task.
+   Large reachability searches run level synchronous, with the frontier split across the pool.
+
+getSCC() partitions nodes exactly like TarjansSCC.getSCC(), every node of a component carries
+the same label. The label is the smallest node id of the component (Tarjan labels it with the
+DFS id of its root, which only a sequential DFS can produce).
+getComponentIds() renumbers the labels to dense ids 0..sccCount-1 in order of the smallest node
+(not topological like Tarjan's), condensation() builds the DAG from them, as in TarjansSCC.
+
+expected time complexity: O((V + E) * log(V)) work with random pivots
+*/
+
+class ParallelSCC {
+
+    private static final int DONE = -1;                 // color of nodes with a label
+    private static final int TRIM_ROUNDS = 4;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final CSRGraph graph, reverse;
+    private final int n;
+    private final ForkJoinPool pool;
+    private boolean isSolved = false;
+
+    private int[] labels;
+    private int[] components;           // dense ids, built on first request
+    private AtomicIntegerArray color;
+    private final AtomicInteger nextColor = new AtomicInteger();
+    private final AtomicInteger sccCount = new AtomicInteger();
+
+
+    public ParallelSCC(CSRGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(CSRGraph graph, ForkJoinPool pool) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be Null");
+
+        this.graph = graph;
+        this.reverse = graph.reverse();
+        this.n = graph.numOfNodes();
+        this.pool = pool;
+    }
+
+
+    // same partition as TarjansSCC.getSCC(), the label of a component is its smallest node id
+    public int[] getSCC() {
+        if(!isSolved)
+            solve();
+
+        return labels;
+    }
+
+
+    public int getSccCount() {
+        if(!isSolved)
+            solve();
+
+        return sccCount.get();
+    }
+
+
+    // dense ids 0..sccCount-1, what TarjansSCC.condense() and the reachability index expect
+    public int[] getComponentIds() {
+        if(!isSolved)
+            solve();
+
+        if(components == null) {
+            // a label is the smallest node of its component, so it gets its id before any other member
+            int[] ids = new int[n];
+            int next = 0;
+            for(int v = 0; v < n; v++)
+                ids[v] = labels[v] == v ? next++ : ids[labels[v]];
+            components = ids;
+        }
+        return components;
+    }
+
+
+    // one node per component, edge c --> d when some edge crosses from c to d
+    public CSRGraph condensation() {
+        return TarjansSCC.condense(graph, getComponentIds(), getSccCount());
+    }
+
+
+    private void solve() {
+        labels = new int[n];
+        components = null;
+        color = new AtomicIntegerArray(n);      // everything starts in color 0
+        nextColor.set(1);
+        sccCount.set(0);
+
+        for(int round = 0; round < TRIM_ROUNDS; round++) {
+            if(trim() == 0)
+                break;
+        }
+
+        int size = 0;
+        int[] members = new int[n];
+        for(int v = 0; v < n; v++)
+            if(color.get(v) == 0)
+                members[size++] = v;
+
+        pool.invoke(new ForwardBackward(Arrays.copyOf(members, size), 0));
+        isSolved = true;
+    }
+
+
+    // one parallel pass, returns the number of nodes peeled off
+    private int trim() {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] revOffsets = reverse.offsets(), sources = reverse.targets();
+        AtomicInteger trimmed = new AtomicInteger();
+
+        pool.invoke(new ParallelRange(0, n, ParallelRange.grainFor(n, pool.getParallelism()), (lo, hi) -> {
+            int count = 0;
+            for(int v = lo; v < hi; v++) {
+                if(color.get(v) != 0)
+                    continue;
+
+                // a neighbour trimmed concurrently is off every cycle, so missing it is still correct
+                if(!hasLiveNeighbour(v, offsets, targets) || !hasLiveNeighbour(v, revOffsets, sources)) {
+                    color.set(v, DONE);
+                    labels[v] = v;
+                    count++;
+                }
+            }
+            trimmed.addAndGet(count);
+        }));
+
+        sccCount.addAndGet(trimmed.get());
+        return trimmed.get();
+    }
+
+
+    private boolean hasLiveNeighbour(int v, int[] offsets, int[] targets) {
+        for(int e = offsets[v]; e < offsets[v + 1]; e++)
+            if(targets[e] != v && color.get(targets[e]) == 0)
+                return true;
+        return false;
+    }
+
+
+    private class ForwardBackward extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] members;    // every node of color c
+        private final int c;
+
+        ForwardBackward(int[] members, int c) {
+            this.members = members;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if(members.length == 0)
+                return;
+
+            if(members.length == 1) {
+                finish(members, 1, members[0]);
+                return;
+            }
+
+            int pivot = members[ThreadLocalRandom.current().nextInt(members.length)];
+            int fw = nextColor.getAndIncrement();
+            int bw = nextColor.getAndIncrement();
+            int scc = nextColor.getAndIncrement();
+
+            // FW: c --> fw | BW: c --> bw, fw --> scc
+            reach(graph, pivot, members.length, c, fw, DONE, DONE);
+            reach(reverse, pivot, members.length, c, bw, fw, scc);
+
+            int[][] parts = new int[3][members.length];
+            int[] sizes = new int[3];
+            int[] sccMembers = new int[members.length];
+            int sccSize = 0, min = Integer.MAX_VALUE;
+            for(int v : members) {
+                int k = color.get(v);
+                if(k == scc) {
+                    sccMembers[sccSize++] = v;
+                    min = Math.min(min, v);
+                }
+                else {
+                    int part = k == fw ? 0 : k == bw ? 1 : 2;
+                    parts[part][sizes[part]++] = v;
+                }
+            }
+            finish(sccMembers, sccSize, min);
+
+            invokeAll(new ForwardBackward(Arrays.copyOf(parts[0], sizes[0]), fw),
+                      new ForwardBackward(Arrays.copyOf(parts[1], sizes[1]), bw),
+                      new ForwardBackward(Arrays.copyOf(parts[2], sizes[2]), c));
+        }
+
+
+        private void finish(int[] component, int size, int label) {
+            for(int i = 0; i < size; i++) {
+                labels[component[i]] = label;
+                color.set(component[i], DONE);
+            }
+            sccCount.incrementAndGet();
+        }
+    }
+
+
+    // recolors everything reachable from pivot through nodes of color `from` / `altFrom`
+    private void reach(CSRGraph g, int pivot, int limit, int from, int to, int altFrom, int altTo) {
+        int[] offsets = g.offsets(), targets = g.targets();
+        recolor(pivot, from, to, altFrom, altTo);
+
+        int[] frontier = new int[limit], next = new int[limit];
+        frontier[0] = pivot;
+        int size = 1;
+
+        while(size > 0) {
+            int[] cur = frontier, out = next;
+
+            // small frontier | one thread expands the level
+            if(size < SEQUENTIAL_THRESHOLD) {
+                int count = 0;
+                for(int i = 0; i < size; i++) {
+                    int at = cur[i];
+                    for(int e = offsets[at]; e < offsets[at + 1]; e++)
+                        if(recolor(targets[e], from, to, altFrom, altTo))
+                            out[count++] = targets[e];
+                }
+                size = count;
+                frontier = out;
+                next = cur;
+                continue;
+            }
+
+            AtomicInteger tail = new AtomicInteger();
+            new ParallelRange(0, size, ParallelRange.grainFor(size, pool.getParallelism()), (lo, hi) -> {
+                int[] local = new int[64];
+                int count = 0;
+                for(int i = lo; i < hi; i++) {
+                    int at = cur[i];
+                    for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                        if(!recolor(targets[e], from, to, altFrom, altTo))
+                            continue;
+                        if(count == local.length)
+                            local = Arrays.copyOf(local, count << 1);
+                        local[count++] = targets[e];
+                    }
+                }
+                System.arraycopy(local, 0, out, tail.getAndAdd(count), count);
+            }).invoke();
+
+            size = tail.get();
+            frontier = out;
+            next = cur;
+        }
+    }
+
+
+    // true for the one thread that moves v out of `from` / `altFrom`
+    private boolean recolor(int v, int from, int to, int altFrom, int altTo) {
+        while(true) {
+            int old = color.get(v);
+            int target = old == from ? to : old == altFrom && altFrom != DONE ? altTo : DONE;
+            if(target == DONE)
+                return false;
+            if(color.compareAndSet(v, old, target))
+                return true;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        // same graph as TarjansSCC
+        CSRGraph small = new CSRGraph.Builder(8)
+            .addEdge(6, 0).addEdge(6, 2).addEdge(3, 4).addEdge(6, 4).addEdge(2, 0)
+            .addEdge(0, 1).addEdge(4, 5).addEdge(5, 6).addEdge(3, 7).addEdge(7, 5)
+            .addEdge(1, 2).addEdge(7, 3).addEdge(5, 0)
+            .build();
+
+        ParallelSCC parallel = new ParallelSCC(small);
+        int[] scc = parallel.getSCC();
+        System.out.println("number of SCC:- " + parallel.getSccCount());
+
+        Map<Integer, List<Integer>> multiMap = new TreeMap<>();
+        for(int i = 0; i < scc.length; i++)
+            multiMap.computeIfAbsent(scc[i], k -> new ArrayList<>()).add(i);
+        for(List<Integer> cc : multiMap.values())
+            System.out.println("Nodes:- " + cc);
+
+        // sparse random graph: one giant SCC, many trivial ones
+        final int n = 500_000;
+        Random random = new Random(13);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int i = 0; i < 2 * n; i++)
+            builder.addEdge(random.nextInt(n), random.nextInt(n));
+        CSRGraph graph = builder.build();
+
+        int[] parallelLabels = new ParallelSCC(graph).getSCC();
+        TarjansSCC tarjan = new TarjansSCC(graph);
+        int[] tarjanLabels = tarjan.getSCC();
+
+        // same partition <=> labels map one to one
+        Map<Integer, Integer> mapping = new HashMap<>();
+        boolean same = tarjan.getSccCount() == new ParallelSCC(graph).getSccCount();
+        for(int v = 0; v < n && same; v++) {
+            Integer label = mapping.putIfAbsent(tarjanLabels[v], parallelLabels[v]);
+            same = label == null || label == parallelLabels[v];
+        }
+        System.out.println("random graph SCCs:- " + tarjan.getSccCount() + ", same partition as Tarjan: " + same);
+
+        // same DAG up to the numbering of the components
+        ParallelSCC engine = new ParallelSCC(graph);
+        int[] parallelIds = engine.getComponentIds(), tarjanIds = tarjan.getComponentIds();
+        int[] toTarjan = new int[engine.getSccCount()];
+        for(int v = 0; v < n; v++)
+            toTarjan[parallelIds[v]] = tarjanIds[v];
+        CSRGraph dag = engine.condensation();
+        System.out.println("condensation:- V=" + dag.numOfNodes() + ", E=" + dag.numOfEdges()
+            + ", same DAG as Tarjan: " + dagEdges(dag, toTarjan).equals(dagEdges(tarjan.condensation(), null)));
+    }
+
+
+    // edges c -> d as (c << 32 | d), ids mapped through `rename` when given
+    private static Set<Long> dagEdges(CSRGraph dag, int[] rename) {
+        Set<Long> edges = new HashSet<>();
+        int[] offsets = dag.offsets(), targets = dag.targets();
+        for(int c = 0; c < dag.numOfNodes(); c++) {
+            for(int e = offsets[c]; e < offsets[c + 1]; e++) {
+                long from = rename == null ? c : rename[c], to = rename == null ? targets[e] : rename[targets[e]];
+                edges.add(from << 32 | to);
+            }
+        }
+        return edges;
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+number of SCC:- 3
+Nodes:- [0, 1, 2]
+Nodes:- [3, 7]
+Nodes:- [4, 5, 6]
+random graph SCCs:- 182084, same partition as Tarjan: true
+condensation:- V=182084, E=252472, same DAG as Tarjan: true
+*/
@@ -0,0 +1,292 @@
+/* TSP using bitset Dynamic Programming, parallel per layer
+time complexity O(n^2 * 2^n / P)
+
+Same recurrence as TSP.java but
+ - memo is one flat primitive array indexed by (subset, end) instead of Double[N][1 << N]
+ - the start node is left out of the subset bits, which halves the table
+ - subsets of size r are walked with Gosper's hack instead of materialized ArrayList<Integer>
+ - every subset of size r only depends on size r - 1, so a whole layer is split across cores
+
+memory: (N - 1) * 2^(N - 1) cells * 8 bytes (double) or 4 bytes (float)
+   N = 20 -->   76 MB /   38 MB
+   N = 24 --> 1472 MB /  736 MB
+   N = 25 --> 3072 MB / 1536 MB
+*/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelTSP {
+
+    // (N - 1) * 2^(N - 1) cells must fit an int array index
+    private static final int MAX_NODES = 27;
+
+    private final int N, M, start;
+    private final double[] dist;        // dist[a * M + b] between remapped nodes a, b (start removed)
+    private final double[] fromStart, toStart;
+    private final boolean useFloat;
+    private final ForkJoinPool pool;
+    private final long[][] binomial;
+
+    private Memo memo;
+    private List<Integer> tour = new ArrayList<>();
+    private double minTourCost = Double.POSITIVE_INFINITY;
+    private boolean isSolved = false;
+
+
+    public ParallelTSP(int start, double[][] distance) {
+        this(start, distance, false, ForkJoinPool.commonPool());
+    }
+
+    public ParallelTSP(int start, double[][] distance, boolean useFloat, ForkJoinPool pool) {
+        N = distance.length;
+
+        if(N != distance[0].length)
+            throw new IllegalStateException("Matrix must be Square");
+        if(N > MAX_NODES)
+            throw new IllegalArgumentException("too much computation to handle");
+        if(start < 0 || start >= N)
+            throw new IllegalArgumentException("Invalid start node");
+
+        long footprint = memoryFootprint(N, useFloat);
+        if(footprint > Runtime.getRuntime().maxMemory())
+            throw new IllegalStateException(String.format("memo needs %d MB, heap max is %d MB",
+                footprint >> 20, Runtime.getRuntime().maxMemory() >> 20));
+
+        this.start = start;
+        this.M = N - 1;
+        this.useFloat = useFloat;
+        this.pool = pool;
+
+        this.dist = new double[M * M];
+        this.fromStart = new double[M];
+        this.toStart = new double[M];
+        for(int a = 0; a < M; a++) {
+            fromStart[a] = distance[start][node(a)];
+            toStart[a] = distance[node(a)][start];
+            for(int b = 0; b < M; b++)
+                dist[a * M + b] = distance[node(a)][node(b)];
+        }
+
+        this.binomial = new long[M + 1][M + 1];
+        for(int i = 0; i <= M; i++) {
+            binomial[i][0] = 1;
+            for(int j = 1; j <= i; j++)
+                binomial[i][j] = binomial[i - 1][j - 1] + binomial[i - 1][j];
+        }
+    }
+
+
+    // bytes the memo table takes for n nodes | check before building a solver
+    public static long memoryFootprint(int n, boolean useFloat) {
+        if(n <= 1)
+            return 0;
+        return ((long) (n - 1) << (n - 1)) * (useFloat ? Float.BYTES : Double.BYTES);
+    }
+
+    public long getMemoryFootprint() {
+        return memoryFootprint(N, useFloat);
+    }
+
+
+    public List<Integer> getTour() {
+        if(!isSolved)
+            runTSP();
+
+        return tour;
+    }
+
+    public double getTourCost() {
+        if(!isSolved)
+            runTSP();
+
+        return minTourCost;
+    }
+
+
+    // remapped index --> original node id
+    private int node(int a) {
+        return a < start ? a : a + 1;
+    }
+
+
+    private void runTSP() {
+        if(isSolved)
+            return;
+
+        if(M == 0) {
+            tour = Arrays.asList(start, start);
+            minTourCost = 0;
+            isSolved = true;
+            return;
+        }
+
+        memo = useFloat ? new FloatMemo(M << M) : new DoubleMemo(M << M);
+
+        // setup | partial tour start --> a
+        for(int a = 0; a < M; a++)
+            memo.set((1 << a) * M + a, fromStart[a]);
+
+        // r -> number of nodes (besides start) in partial tour
+        for(int r = 2; r <= M; r++) {
+            final int size = r;
+            long count = binomial[M][r];
+            int chunks = (int) Math.min(count, pool.getParallelism() * 16L);
+            long chunkSize = (count + chunks - 1) / chunks;
+
+            pool.invoke(new ParallelRange(0, chunks, 1, (from, to) -> {
+                for(int c = from; c < to; c++) {
+                    long rank = c * chunkSize;
+                    long last = Math.min(rank + chunkSize, count);
+                    int subset = unrank(rank, size);
+
+                    for(; rank < last; rank++) {
+                        solveSubset(subset);
+                        subset = nextSubset(subset);
+                    }
+                }
+            }));
+        }
+
+        // calculate min tour cost
+        final int endState = (1 << M) - 1;
+        int last = -1;
+        for(int a = 0; a < M; a++) {
+            double tourCost = memo.get(endState * M + a) + toStart[a];
+            if(tourCost < minTourCost) {
+                minTourCost = tourCost;
+                last = a;
+            }
+        }
+
+        // find optimal tour | walk back from the last node before returning to start
+        Integer[] path = new Integer[N + 1];
+        path[0] = path[N] = start;
+        int state = endState;
+        for(int i = N - 1; i >= 1; i--) {
+            path[i] = node(last);
+            int prevState = state ^ (1 << last);
+            if(prevState == 0)
+                break;
+
+            int best = -1;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for(int bits = prevState; bits != 0; bits &= bits - 1) {
+                int p = Integer.numberOfTrailingZeros(bits);
+                double d = memo.get(prevState * M + p) + dist[p * M + last];
+                if(best == -1 || d < bestDist) {
+                    best = p;
+                    bestDist = d;
+                }
+            }
+
+            state = prevState;
+            last = best;
+        }
+
+        tour = Arrays.asList(path);
+        memo = null;    // table is only needed to rebuild the tour
+        isSolved = true;
+    }
+
+
+    // best partial tour over `subset` ending at every node of it
+    private void solveSubset(int subset) {
+        for(int nextBits = subset; nextBits != 0; nextBits &= nextBits - 1) {
+            int next = Integer.numberOfTrailingZeros(nextBits);
+            int subsetWithoutNext = subset ^ (1 << next);
+            int base = subsetWithoutNext * M;
+
+            double minDist = Double.POSITIVE_INFINITY;
+            for(int endBits = subsetWithoutNext; endBits != 0; endBits &= endBits - 1) {
+                int end = Integer.numberOfTrailingZeros(endBits);
+                double newDist = memo.get(base + end) + dist[end * M + next];
+                if(newDist < minDist)
+                    minDist = newDist;
+            }
+
+            memo.set(subset * M + next, minDist);
+        }
+    }
+
+
+    // Gosper's hack | next bigger integer with the same number of set bits
+    private static int nextSubset(int x) {
+        int lowest = x & -x;
+        int ripple = x + lowest;
+        return (((ripple ^ x) >>> 2) / lowest) | ripple;
+    }
+
+
+    // rank-th subset of size r in Gosper (colex) order | combinatorial number system
+    private int unrank(long rank, int r) {
+        int subset = 0;
+        for(int i = r, c = M - 1; i >= 1; i--) {
+            while(binomial[c][i] > rank)
+                c--;
+            subset |= 1 << c;
+            rank -= binomial[c][i];
+            c--;
+        }
+        return subset;
+    }
+
+
+    private static abstract class Memo {
+        abstract double get(int index);
+        abstract void set(int index, double value);
+    }
+
+    private static final class DoubleMemo extends Memo {
+        private final double[] cells;
+        DoubleMemo(int size) { cells = new double[size]; }
+        double get(int index) { return cells[index]; }
+        void set(int index, double value) { cells[index] = value; }
+    }
+
+    // half the memory, ~7 significant digits per partial tour cost
+    private static final class FloatMemo extends Memo {
+        private final float[] cells;
+        FloatMemo(int size) { cells = new float[size]; }
+        double get(int index) { return cells[index]; }
+        void set(int index, double value) { cells[index] = (float) value; }
+    }
+
+
+    public static void main(String[] args) {
+        for(int n : new int[] {20, 24, 25})
+            System.out.printf("N = %d memo: %d MB (double), %d MB (float)\n",
+                n, memoryFootprint(n, false) >> 20, memoryFootprint(n, true) >> 20);
+
+        // Create adjacency matrix
+        int n = 6;
+        double[][] distanceMatrix = new double[n][n];
+        for (double[] row : distanceMatrix) Arrays.fill(row, 10000);
+        distanceMatrix[5][0] = 10;
+        distanceMatrix[1][5] = 12;
+        distanceMatrix[4][1] = 2;
+        distanceMatrix[2][4] = 4;
+        distanceMatrix[3][2] = 6;
+        distanceMatrix[0][3] = 8;
+
+        int startNode = 4;
+        ParallelTSP solver = new ParallelTSP(startNode, distanceMatrix);
+
+        System.out.println("Tour: " + solver.getTour());
+
+        System.out.println("Tour cost: " + solver.getTourCost());
+    }
+}
+
+
+/*
+OUTPUT
+-------------
+N = 20 memo: 76 MB (double), 38 MB (float)
+N = 24 memo: 1472 MB (double), 736 MB (float)
+N = 25 memo: 3072 MB (double), 1536 MB (float)
+Tour: [4, 1, 5, 0, 3, 2, 4]
+Tour cost: 42.0
+*/
@@ -31,19 +31,52 @@ public class Prims {
     private boolean mstExists;
     private boolean[] visited;
     private boolean isSolved;
-    private List<List<Edge>> graph;
+    private CSRGraph graph;
     private PriorityQueue<Edge> pq;
 
+    private int heapArity;          // 0 --> lazy evaluation
+    private MinIndexedDHeap ipq;    // eager: best known edge cost into every frontier node
+    private int[] bestEdge, bestFrom;
+
     private Long minCostSum = 0L;
     private Edge[] mstEdges;
 
 
     public Prims(List<List<Edge>> graph) {
+        this(toCSR(graph));
+    }
+
+    // graph must hold both directions of every undirected edge (see CSRGraph.Builder#connectEdge)
+    public Prims(CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph should not be null");
         
         this.graph = graph;
-        this.n = graph.size();
+        this.n = graph.numOfNodes();
+    }
+
+    // eager evaluation | heapArity == 2 is a binary heap
+    public Prims(CSRGraph graph, int heapArity) {
+        this(graph);
+        if(heapArity < 2)
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+
+        this.heapArity = heapArity;
+    }
+
+
+    // both directions of an undirected edge are already listed, they are copied one to one
+    private static CSRGraph toCSR(List<List<Edge>> graph) {
+        if(graph == null)
+            throw new IllegalArgumentException("Graph should not be null");
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(graph.size());
+        for(List<Edge> edges : graph) {
+            for(Edge edge : edges)
+                builder.addEdge(edge.from, edge.to, edge.cost);
+        }
+
+        return builder.build();
     }
 
     private Edge[] getMST() {
@@ -53,7 +86,7 @@ public class Prims {
         return mstExists ? mstEdges : null;
     }
 
-    private Long getMinCost() {
+    Long getMinCost() {
         if(!isSolved)
             solvePrims();
         
@@ -62,6 +95,10 @@ public class Prims {
 
     private void solvePrims() {
         if(isSolved) { return; }
+        if(heapArity > 0) {
+            solvePrimsEager();
+            return;
+        }
 
         int m = n - 1, edgeCount = 0;
         pq = new PriorityQueue<>();
@@ -89,10 +126,62 @@ public class Prims {
     private void addEdges(int nodeIndex) {
         visited[nodeIndex] = true;
 
-        List<Edge> edges = this.graph.get(nodeIndex);
-        for(Edge e : edges) {
-            if(!visited[e.to])
-                pq.offer(e);
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        for(int e = offsets[nodeIndex]; e < offsets[nodeIndex + 1]; e++) {
+            if(!visited[targets[e]])
+                pq.offer(new Edge(nodeIndex, targets[e], costs[e]));
+        }
+    }
+
+
+    // Indexed priority queue holds at most one entry per node, the cheapest edge
+    // crossing the cut into it, so no stale edges are ever polled | O(E*logV)
+    private void solvePrimsEager() {
+        int m = n - 1, edgeCount = 0;
+        ipq = new MinIndexedDHeap(heapArity, Math.max(1, n));
+        bestEdge = new int[n];
+        bestFrom = new int[n];
+        visited = new boolean[n];
+        mstEdges = new Edge[m];
+        int[] costs = graph.costs();
+
+        relaxEdges(0);
+
+        while(!ipq.isEmpty() && m != edgeCount) {
+            int nodeTo = ipq.pollMin();
+            int e = bestEdge[nodeTo];
+
+            mstEdges[edgeCount++] = new Edge(bestFrom[nodeTo], nodeTo, costs[e]);
+            minCostSum += costs[e];
+            relaxEdges(nodeTo);
+        }
+
+        mstExists = (m == edgeCount);
+        isSolved = true;
+    }
+
+
+    private void relaxEdges(int nodeIndex) {
+        visited[nodeIndex] = true;
+
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+        for(int e = offsets[nodeIndex]; e < offsets[nodeIndex + 1]; e++) {
+            int to = targets[e];
+            if(visited[to])
+                continue;
+
+            if(!ipq.contains(to)) {
+                ipq.insert(to, costs[e]);
+            }
+            else if(costs[e] < ipq.valueOf(to)) {
+                ipq.decreaseKey(to, costs[e]);
+            }
+            else {
+                continue;
+            }
+
+            bestEdge[to] = e;
+            bestFrom[to] = nodeIndex;
         }
     }
 
@@ -140,6 +229,9 @@ public class Prims {
             System.out.println(String.format("from: %d, to: %d, cost: %d", e.from, e.to, e.cost));
         }
         }
+
+        Prims eager = new Prims(toCSR(g), 2);
+        System.out.println("Eager MST cost: " + eager.getMinCost());
     }
 }
 
@@ -152,4 +244,5 @@ from: 3, to: 1, cost: -2
 from: 3, to: 5, cost: 2
 from: 5, to: 6, cost: 1
 from: 1, to: 4, cost: 3
+Eager MST cost: 9
  */
\ No newline at end of file
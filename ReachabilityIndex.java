@@ -0,0 +1,308 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/* Reachability index - answers "can u reach v?" without a search for almost every query.
+1. SCCs collapse into one node each (labels of TarjansSCC.getSCC() or ParallelSCC.getSCC()),
+   the condensation is a DAG and gets a topological rank from TopologicalSort
+2. GRAIL labels: k randomized post order DFS traversals of the DAG, for every traversal
+       post[c] = finish rank of c,   low[c] = min post over everything c reaches
+   u reaches v  ==>  [low[v], post[v]] inside [low[u], post[u]] for all k traversals
+
+Query u --> v (cu, cv = components)
+ - cu == cv                                 --> true
+ - rank[cu] > rank[cv] or any label misses  --> false
+ - v in the DFS tree of u (first traversal) --> true
+ - otherwise DFS over the DAG that only enters components whose labels still contain cv
+
+memory: 1 int per node + (2 * k + 4) ints per component + the DAG (targets and costs), k fits the budget.
+The budget reserves one search workspace (2 ints per component). Queries are thread safe, searches
+take a workspace from the index (ParallelRange.Scratch) and hand it back, so only queries that ran
+at the same time add a workspace each on top of the budget, and none stays with the calling threads.
+*/
+
+class ReachabilityIndex {
+
+    static final int MIN_DIMENSIONS = 1, MAX_DIMENSIONS = 8;
+
+    private final int numOfNodes, numOfComponents, k;
+    private final int[] component;      // node --> component
+    private final CSRGraph dag;
+    private final int[] rank;           // component --> position in topological order
+    private final int[] intervals;      // component major: low_0, post_0, low_1, post_1, ...
+    private final int[] pre;            // pre order of the first traversal, for the tree test
+
+    private final ParallelRange.Scratch<Workspace> workspaces;
+
+
+    // Tarjan labels and the largest k that fits the budget
+    public ReachabilityIndex(CSRGraph graph, long memoryBudgetBytes) {
+        this(graph, new TarjansSCC(graph).getSCC(), memoryBudgetBytes, 1);
+    }
+
+    // `sccLabels` --> lows-style labels, nodes of one SCC share a label in 0..n-1
+    public ReachabilityIndex(CSRGraph graph, int[] sccLabels, long memoryBudgetBytes, long seed) {
+        if(graph == null || sccLabels == null)
+            throw new IllegalArgumentException("Graph cannot be Null");
+
+        this.numOfNodes = graph.numOfNodes();
+
+        // labels --> dense component ids
+        int[] dense = new int[numOfNodes];
+        Arrays.fill(dense, -1);
+        this.component = new int[numOfNodes];
+        int count = 0;
+        for(int v = 0; v < numOfNodes; v++) {
+            int label = sccLabels[v];
+            if(dense[label] == -1)
+                dense[label] = count++;
+            component[v] = dense[label];
+        }
+        this.numOfComponents = count;
+        this.dag = TarjansSCC.condense(graph, component, count);
+
+        // component, rank, pre, the DAG and one query workspace | same terms as memoryFootprint()
+        long fixed = 4L * numOfNodes + 8L * count + dagBytes(dag) + workspaceBytes(count);
+        long perDimension = 8L * count;
+        long fit = perDimension == 0 ? MAX_DIMENSIONS : (memoryBudgetBytes - fixed) / perDimension;
+        if(fit < MIN_DIMENSIONS)
+            throw new IllegalArgumentException("Memory budget too small, need at least " + (fixed + perDimension) + " bytes");
+        this.k = (int) Math.min(MAX_DIMENSIONS, fit);
+
+        int[] order = TopologicalSort.topSort(dag);
+        this.rank = new int[count];
+        for(int i = 0; i < count; i++)
+            rank[order[i]] = i;
+
+        this.intervals = new int[2 * k * count];
+        this.pre = new int[count];
+        Random random = new Random(seed);
+        for(int d = 0; d < k; d++)
+            label(d, order, random);
+
+        this.workspaces = new ParallelRange.Scratch<>(() -> new Workspace(numOfComponents));
+    }
+
+
+    public int numOfComponents() { return numOfComponents; }
+
+    public int getDimensions() { return k; }
+
+    public int componentOf(int v) { return component[v]; }
+
+    // index + the query workspaces it holds, at least the one the budget was checked against
+    public long memoryFootprint() {
+        return 4L * (component.length + rank.length + intervals.length + pre.length)
+            + dagBytes(dag) + Math.max(1, workspaces.created()) * workspaceBytes(numOfComponents);
+    }
+
+    // offsets, targets and the costs condense() keeps
+    private static long dagBytes(CSRGraph dag) {
+        return 4L * (dag.numOfNodes() + 1 + dag.numOfEdges() * 2L);
+    }
+
+    private static long workspaceBytes(int numOfComponents) {
+        return 8L * numOfComponents;
+    }
+
+
+    public boolean canReach(int u, int v) {
+        int cu = component[u], cv = component[v];
+        if(cu == cv)
+            return true;
+        if(!mayReach(cu, cv))
+            return false;
+
+        // tree edge descendant of the first traversal
+        int pu = 2 * k * cu, pv = 2 * k * cv;
+        if(pre[cu] <= pre[cv] && intervals[pv + 1] <= intervals[pu + 1])
+            return true;
+
+        return search(cu, cv);
+    }
+
+
+    // false means definitely not reachable
+    private boolean mayReach(int cu, int cv) {
+        if(rank[cu] > rank[cv])
+            return false;
+
+        int pu = 2 * k * cu, pv = 2 * k * cv;
+        for(int i = 0; i < 2 * k; i += 2) {
+            if(intervals[pv + i] < intervals[pu + i] || intervals[pv + i + 1] > intervals[pu + i + 1])
+                return false;
+        }
+        return true;
+    }
+
+
+    private boolean search(int cu, int cv) {
+        Workspace ws = workspaces.take();
+        boolean found = search(cu, cv, ws);
+        workspaces.release(ws);
+        return found;
+    }
+
+    // DFS that skips every component the labels rule out
+    private boolean search(int cu, int cv, Workspace ws) {
+        int stamp = ws.nextStamp();
+        int[] offsets = dag.offsets(), targets = dag.targets();
+
+        int top = 0;
+        ws.stack[top++] = cu;
+        ws.seen[cu] = stamp;
+        while(top > 0) {
+            int at = ws.stack[--top];
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                int to = targets[e];
+                if(to == cv)
+                    return true;
+                if(ws.seen[to] == stamp || !mayReach(to, cv))
+                    continue;
+                ws.seen[to] = stamp;
+                ws.stack[top++] = to;
+            }
+        }
+        return false;
+    }
+
+
+    // randomized post order traversal d | roots and children in random rotation
+    private void label(int d, int[] order, Random random) {
+        int[] offsets = dag.offsets(), targets = dag.targets();
+        int[] cursor = new int[numOfComponents];     // children done of the node on stack
+        int[] shift = new int[numOfComponents];      // random rotation of its children
+        int[] stack = new int[numOfComponents];
+        boolean[] visited = new boolean[numOfComponents];
+        int post = 0, preCount = 0;
+
+        // topological order visits sources first, a random rotation of it varies the roots
+        int rotate = numOfComponents == 0 ? 0 : random.nextInt(numOfComponents);
+        for(int r = 0; r < numOfComponents; r++) {
+            int root = order[(r + rotate) % numOfComponents];
+            if(visited[root])
+                continue;
+
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            if(d == 0)
+                pre[root] = preCount++;
+            shift[root] = random.nextInt(Math.max(1, offsets[root + 1] - offsets[root]));
+
+            while(top > 0) {
+                int at = stack[top - 1];
+                int degree = offsets[at + 1] - offsets[at];
+                if(cursor[at] < degree) {
+                    int to = targets[offsets[at] + (cursor[at]++ + shift[at]) % degree];
+                    if(!visited[to]) {
+                        visited[to] = true;
+                        if(d == 0)
+                            pre[to] = preCount++;
+                        shift[to] = random.nextInt(Math.max(1, offsets[to + 1] - offsets[to]));
+                        stack[top++] = to;
+                    }
+                    continue;
+                }
+
+                // DAG | every child is finished, so its low is final
+                top--;
+                int low = post;
+                for(int e = offsets[at]; e < offsets[at + 1]; e++)
+                    low = Math.min(low, intervals[2 * k * targets[e] + 2 * d]);
+                intervals[2 * k * at + 2 * d] = low;
+                intervals[2 * k * at + 2 * d + 1] = post++;
+            }
+        }
+    }
+
+
+    private static class Workspace {
+        final int[] seen, stack;
+        int stamp;
+
+        Workspace(int size) {
+            this.seen = new int[size];
+            this.stack = new int[size];
+        }
+
+        // visited marks of older queries are simply stale, no O(V) reset
+        int nextStamp() {
+            if(++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        // sparse random graph, some large SCCs and a long DAG tail
+        final int n = 100_000, queries = 100_000;
+        Random random = new Random(21);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int i = 0; i < 2 * n; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            // mostly forward edges, a few backward ones close cycles
+            builder.addEdge(Math.min(u, v), Math.max(u, v));
+            if(i % 50 == 0)
+                builder.addEdge(Math.max(u, v), Math.min(u, v));
+        }
+        CSRGraph graph = builder.build();
+
+        final long budget = 8L << 20;
+        ReachabilityIndex index = new ReachabilityIndex(graph, budget);
+        if(index.memoryFootprint() > budget)
+            throw new IllegalStateException("Index is over its memory budget: " + index.memoryFootprint());
+        System.out.printf("components: %d, dimensions: %d, memory: %d of %d bytes\n",
+            index.numOfComponents(), index.getDimensions(), index.memoryFootprint(), budget);
+
+        // a few queries checked against a plain BFS
+        boolean same = true;
+        int reachable = 0;
+        for(int q = 0; q < 200; q++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            boolean answer = index.canReach(u, v);
+            same &= answer == bfsReach(graph, u, v);
+            if(answer)
+                reachable++;
+        }
+        System.out.println("200 queries agree with BFS: " + same + ", reachable: " + reachable);
+
+        int positive = 0;
+        for(int q = 0; q < queries; q++)
+            if(index.canReach(random.nextInt(n), random.nextInt(n)))
+                positive++;
+        System.out.println(queries + " random queries, reachable: " + positive);
+    }
+
+
+    private static boolean bfsReach(CSRGraph graph, int u, int v) {
+        boolean[] visited = new boolean[graph.numOfNodes()];
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(u);
+        visited[u] = true;
+        while(!queue.isEmpty()) {
+            int at = queue.poll();
+            if(at == v)
+                return true;
+            for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+                if(!visited[targets[e]]) {
+                    visited[targets[e]] = true;
+                    queue.add(targets[e]);
+                }
+            }
+        }
+        return false;
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+components: 95955, dimensions: 5, memory: 7724856 of 8388608 bytes
+200 queries agree with BFS: true, reachable: 2
+100000 random queries, reachable: 201
+*/
@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* All-Pairs Shortest Path result store outside the Java heap.
+FloydWarshall keeps double[][] + Integer[][] on the heap, 8 + ~20 bytes per pair, which at
+20k nodes is many GB for the garbage collector to trace. Here the n x n distances (float or
+double) and int successors live in a memory mapped file, or in direct buffers when no file is
+given, so the heap only holds a few buffer objects whatever n is:
+    header (magic, n, bytes per distance, 0) | dist row 0 .. row n-1 | next row 0 .. row n-1
+next[i][j] = node after i on the shortest path i -> j, so reconstructPath walks the store
+directly, the same way FloydWarshall walks its `next` matrix.
+
+Rows are written by one thread each and reads use absolute buffer gets, so any number of query
+threads can read at once. FLOAT halves the distance bytes and is exact for integer costs
+up to 2^24. A saved store is opened again without recomputation, pages are loaded by the OS
+on first touch.
+
+fill from a graph: one Dijkstra per source on a ForkJoinPool, O(V * E * log(V)) work
+memory: (4 or 8) + 4 bytes per pair off heap
+*/
+
+class ShortestPathStore {
+
+    enum Precision { FLOAT, DOUBLE }
+
+    static final int NO_NEXT = BlockedFloydWarshall.NO_NEXT;
+    static final int NEGATIVE_CYCLE = BlockedFloydWarshall.NEGATIVE_CYCLE;
+
+    private static final int FILE_MAGIC = 0x41505301;       // "APS" + version 1
+    private static final int HEADER_INTS = 4;               // magic, n, bytes per distance, 0 | keeps doubles aligned
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;  // one mapping must stay below 2 GB
+
+    private final int n;
+    private final Precision precision;
+    private final ByteBuffer header;
+    private final int distRowsPerSegment, nextRowsPerSegment;
+    private final ByteBuffer[] buffers;     // every segment, flushed together
+    private final FloatBuffer[] floatDist;  // FLOAT  --> float views, doubleDist is null
+    private final DoubleBuffer[] doubleDist;
+    private final IntBuffer[] next;
+
+
+    // channel == null --> direct (off heap) buffers, nothing is persisted
+    private ShortestPathStore(int n, Precision precision, FileChannel channel, boolean create) throws IOException {
+        this.n = n;
+        this.precision = precision;
+        int distBytes = precision == Precision.FLOAT ? 4 : 8;
+        long rowBytes = Math.max(1L, (long) distBytes * n);
+        this.distRowsPerSegment = (int) Math.max(1, Math.min(n, MAX_SEGMENT_BYTES / rowBytes));
+        this.nextRowsPerSegment = (int) Math.max(1, Math.min(n, MAX_SEGMENT_BYTES / Math.max(1L, 4L * n)));
+
+        FileChannel.MapMode mode = create ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        long position = 4L * HEADER_INTS;
+        this.header = region(channel, mode, 0, position);
+
+        int distSegments = Math.max(1, (n + distRowsPerSegment - 1) / distRowsPerSegment);
+        int nextSegments = Math.max(1, (n + nextRowsPerSegment - 1) / nextRowsPerSegment);
+        this.buffers = new ByteBuffer[distSegments + nextSegments];
+        this.floatDist = precision == Precision.FLOAT ? new FloatBuffer[distSegments] : null;
+        this.doubleDist = precision == Precision.DOUBLE ? new DoubleBuffer[distSegments] : null;
+        this.next = new IntBuffer[nextSegments];
+
+        for(int s = 0; s < distSegments; s++) {
+            long bytes = (long) distBytes * n * Math.min(distRowsPerSegment, n - (long) s * distRowsPerSegment);
+            buffers[s] = region(channel, mode, position, bytes);
+            if(floatDist != null)
+                floatDist[s] = buffers[s].asFloatBuffer();
+            else
+                doubleDist[s] = buffers[s].asDoubleBuffer();
+            position += bytes;
+        }
+
+        for(int s = 0; s < nextSegments; s++) {
+            long bytes = 4L * n * Math.min(nextRowsPerSegment, n - (long) s * nextRowsPerSegment);
+            buffers[distSegments + s] = region(channel, mode, position, bytes);
+            next[s] = buffers[distSegments + s].asIntBuffer();
+            position += bytes;
+        }
+    }
+
+
+    // mappings stay valid after the channel is closed
+    private static ByteBuffer region(FileChannel channel, FileChannel.MapMode mode, long position, long bytes)
+        throws IOException {
+
+        ByteBuffer buffer = channel == null ? ByteBuffer.allocateDirect((int) bytes) : channel.map(mode, position, bytes);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+
+    public int numOfNodes() { return n; }
+
+    public Precision getPrecision() { return precision; }
+
+
+    // empty store, every entry unset | file == null --> off heap only
+    public static ShortestPathStore create(int n, Precision precision, Path file) throws IOException {
+        if(n < 0)
+            throw new IllegalArgumentException("Number of nodes cannot be negative");
+        if(precision == null)
+            throw new IllegalArgumentException("Precision cannot be null");
+
+        if(file == null)
+            return new ShortestPathStore(n, precision, null, true);
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return new ShortestPathStore(n, precision, channel, true);
+        }
+    }
+
+
+    // read only, a store saved by flush() | no recomputation
+    public static ShortestPathStore open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() < 4L * HEADER_INTS)
+                throw new IOException("Not a shortest path store: " + file);
+
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4L * HEADER_INTS)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+            if(ints.get(0) != FILE_MAGIC)
+                throw new IOException("Not a shortest path store: " + file);
+
+            int n = ints.get(1), distBytes = ints.get(2);
+            if(n < 0 || (distBytes != 4 && distBytes != 8))
+                throw new IOException("Corrupt shortest path store header: " + file);
+
+            Precision precision = distBytes == 4 ? Precision.FLOAT : Precision.DOUBLE;
+            long expected = 4L * HEADER_INTS + (distBytes + 4L) * n * n;
+            if(channel.size() < expected)
+                throw new IOException("Truncated shortest path store: " + file);
+
+            return new ShortestPathStore(n, precision, channel, false);
+        }
+    }
+
+
+    // one Dijkstra per source straight into the store | non-negative costs only
+    public static ShortestPathStore fromGraph(CSRGraph graph, Precision precision, Path file, ForkJoinPool pool)
+        throws IOException {
+
+        return fromGraph(graph, null, precision, file, pool);
+    }
+
+    // graph reweighted by `potential` (Johnson), stored cost = d(i, j) - potential[i] + potential[j]
+    static ShortestPathStore fromGraph(CSRGraph graph, double[] potential, Precision precision, Path file,
+        ForkJoinPool pool) throws IOException {
+
+        if(graph == null)
+            throw new IllegalArgumentException("Graph cannot be null");
+
+        final int n = graph.numOfNodes();
+        ShortestPathStore store = create(n, precision, file);
+        int[] sources = new int[n];
+        for(int i = 0; i < n; i++)
+            sources[i] = i;
+
+        // one buffer per running source, gone with the call
+        ParallelRange.Scratch<int[]> firstHops = new ParallelRange.Scratch<>(() -> new int[n]);
+        DijkstraWorkspace.forEachSource(graph, sources, pool, (i, ws) -> {
+            // first hop of every reached node, parents are settled before their children
+            int[] first = firstHops.take();
+            for(int k = 0; k < ws.numOfSettled(); k++) {
+                int v = ws.settled(k), parent = ws.previous(v);
+                first[v] = parent == -1 || parent == i ? v : first[parent];
+            }
+
+            for(int j = 0; j < n; j++) {
+                double d = ws.distance(j);
+                if(d == Double.POSITIVE_INFINITY)
+                    store.set(i, j, d, NO_NEXT);
+                else
+                    store.set(i, j, potential == null ? d : d - potential[i] + potential[j], first[j]);
+            }
+            firstHops.release(first);
+        });
+
+        store.flush();
+        return store;
+    }
+
+
+    // copies a solved BlockedFloydWarshall, negative cycle markers included
+    public static ShortestPathStore fromFloydWarshall(BlockedFloydWarshall fw, Precision precision, Path file)
+        throws IOException {
+
+        if(fw == null)
+            throw new IllegalArgumentException("Solver cannot be null");
+
+        final int n = fw.numOfNodes();
+        double[] dist = fw.distances();
+        int[] successors = fw.successors();
+        ShortestPathStore store = create(n, precision, file);
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                store.set(i, j, dist[i * n + j], successors[i * n + j]);
+
+        store.flush();
+        return store;
+    }
+
+
+    public double getCost(int start, int end) {
+        int s = start / distRowsPerSegment, at = (start % distRowsPerSegment) * n + end;
+        return floatDist != null ? floatDist[s].get(at) : doubleDist[s].get(at);
+    }
+
+    // node after `start` on the shortest path to `end` | NO_NEXT / NEGATIVE_CYCLE
+    public int getNext(int start, int end) {
+        return next[start / nextRowsPerSegment].get((start % nextRowsPerSegment) * n + end);
+    }
+
+
+    // rows may be written from many threads as long as no two write the same row
+    void set(int start, int end, double cost, int nextNode) {
+        int s = start / distRowsPerSegment, at = (start % distRowsPerSegment) * n + end;
+        if(floatDist != null)
+            floatDist[s].put(at, (float) cost);
+        else
+            doubleDist[s].put(at, cost);
+
+        next[start / nextRowsPerSegment].put((start % nextRowsPerSegment) * n + end, nextNode);
+    }
+
+
+    // null --> negative cycle on the way, empty --> no route | same contract as BlockedFloydWarshall
+    public List<Integer> reconstructPath(int start, int end) {
+        List<Integer> path = new ArrayList<>();
+        if(getCost(start, end) == Double.POSITIVE_INFINITY)
+            return path;
+
+        int at = start;
+        for(; at != end; at = getNext(at, end)) {
+            if(at == NEGATIVE_CYCLE)
+                return null;
+            path.add(at);
+        }
+
+        if(getNext(at, end) == NEGATIVE_CYCLE)
+            return null;
+
+        path.add(end);
+        return path;
+    }
+
+
+    // header goes last, a crash half way leaves a file that open() rejects
+    void flush() {
+        for(ByteBuffer buffer : buffers)
+            if(buffer instanceof MappedByteBuffer)
+                ((MappedByteBuffer) buffer).force();
+
+        IntBuffer ints = header.asIntBuffer();
+        ints.put(1, n);
+        ints.put(2, precision == Precision.FLOAT ? 4 : 8);
+        ints.put(3, 0);
+        ints.put(0, FILE_MAGIC);
+        if(header instanceof MappedByteBuffer)
+            ((MappedByteBuffer) header).force();
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        // 40 x 40 weighted grid, two way streets
+        final int rows = 40, cols = 40, n = rows * cols;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        CSRGraph graph = GraphGenerator.grid(rows, cols, 100, 23).build(pool, true);
+
+        Path file = Files.createTempFile("apsp", ".sps");
+        try {
+            // timings are in Benchmark (java Benchmark apsp)
+            ShortestPathStore store = fromGraph(graph, Precision.FLOAT, file, pool);
+            ShortestPathStore reopened = open(file);
+
+            // concurrent readers over the reopened file, checked against the one that wrote it
+            AtomicLong mismatches = new AtomicLong();
+            pool.invoke(new ParallelRange(0, n, ParallelRange.grainFor(n, pool.getParallelism()), (lo, hi) -> {
+                for(int i = lo; i < hi; i++)
+                    for(int j = 0; j < n; j++)
+                        if(reopened.getCost(i, j) != store.getCost(i, j) || reopened.getNext(i, j) != store.getNext(i, j))
+                            mismatches.incrementAndGet();
+            }));
+
+            DijkstraWorkspace ws = new DijkstraWorkspace(graph);
+            boolean same = true;
+            for(int i = 0; i < n; i += 97)
+                for(int j = 0; j < n; j += 89)
+                    same &= ws.query(i, j) == reopened.getCost(i, j);
+
+            System.out.printf("%d x %d pairs, %s, file %d MB\n", n, n, reopened.getPrecision(), Files.size(file) >> 20);
+            System.out.println("reopened store matches, " + mismatches.get() + " mismatches | costs match Dijkstra: " + same);
+            System.out.printf("cost %d --> %d: %.2f, path %s\n", 0, cols + 3, reopened.getCost(0, cols + 3), reopened.reconstructPath(0, cols + 3));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+
+        // negative cycle graph of the FloydWarshall demo, copied into an off heap store
+        double[][] m = new double[7][7];
+        for(int i = 0; i < 7; i++) {
+            Arrays.fill(m[i], Double.POSITIVE_INFINITY);
+            m[i][i] = 0;
+        }
+        m[0][1] = 2; m[0][2] = 5; m[0][6] = 10; m[1][2] = 2; m[1][4] = 11;
+        m[2][6] = 2; m[6][5] = 11; m[4][5] = 1; m[5][4] = -2;
+
+        ShortestPathStore offHeap = fromFloydWarshall(new BlockedFloydWarshall(m), Precision.DOUBLE, null);
+        for(int j = 0; j < 7; j++)
+            System.out.printf("node %d to %d cost %.2f path %s\n", 0, j, offHeap.getCost(0, j), offHeap.reconstructPath(0, j));
+    }
+}
+
+/*
+OUTPUT
+------------------------------
+1600 x 1600 pairs, FLOAT, file 19 MB
+reopened store matches, 0 mismatches | costs match Dijkstra: true
+cost 0 --> 43: 135.00, path [0, 1, 2, 3, 43]
+node 0 to 0 cost 0.00 path [0]
+node 0 to 1 cost 2.00 path [0, 1]
+node 0 to 2 cost 4.00 path [0, 1, 2]
+node 0 to 3 cost Infinity path []
+node 0 to 4 cost -Infinity path null
+node 0 to 5 cost -Infinity path null
+node 0 to 6 cost 6.00 path [0, 1, 2, 6]
+*/
\ No newline at end of file
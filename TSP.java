@@ -36,7 +36,7 @@ class TSP {
         return tour;
     }
 
-    private double getTourCost() {
+    double getTourCost() {
         if(!isSolved)
             runTSP();
         
@@ -1,26 +1,41 @@
 import java.util.*;
 import java.lang.IllegalArgumentException;
 
+/* Tarjan's Strongly Connected Components - one DFS, O(V + E).
+solve() runs the DFS with explicit int[] stacks (call stack + edge cursor per node) so a path of
+millions of nodes needs no -Xss, and no node id is boxed. solveRecursive() is the textbook version,
+kept for comparison.
+
+ - getSCC()          --> lows[v], low link of the component root, same for every node of a component
+ - getComponentIds() --> dense ids 0..sccCount-1 in order of completion (sinks of the DAG first)
+ - condensation()    --> DAG with one node per component, one unweighted edge per connected pair
+*/
+
 class TarjansSCC {
 
-    private List<List<Integer>> graph;
+    private CSRGraph graph;
     private boolean isSolved = false;
     private int n, sccCount, id;
-    private int[] ids, lows;
+    private int[] ids, lows, components;
     private boolean[] onStack; 
     private Deque<Integer> stack;
     private final int UNVISITED = -1;
 
     public TarjansSCC(List<List<Integer>> graph) {
+        this(CSRGraph.fromAdjacency(graph));
+    }
+
+    public TarjansSCC(CSRGraph graph) {
         if(graph == null)
             throw new IllegalArgumentException("Graph cannot be Null");
 
         this.graph = graph;
-        this.n = graph.size();
+        this.n = graph.numOfNodes();
     }
 
 
-    private int[] getSCC() {
+    // lows-style labels, nodes of one component share a label
+    int[] getSCC() {
         if(!isSolved)
             solve();
         
@@ -28,28 +43,115 @@ class TarjansSCC {
     }
 
 
+    public int getSccCount() {
+        if(!isSolved)
+            solve();
+
+        return sccCount;
+    }
+
+
+    public int[] getComponentIds() {
+        if(!isSolved)
+            solve();
+
+        return components;
+    }
+
+
     private void solve() {
         ids = new int[n];           // ids --> ID of vertex
         lows = new int[n];          // lows --> low link of vertex to get SCC
+        components = new int[n];
         onStack = new boolean[n];   // if vertex we are visiting is on stack then only get the low link
-        stack = new ArrayDeque<>(); // keep track of vertex we are visiting | to avoid cycle
         Arrays.fill(ids, UNVISITED);
+        id = sccCount = 0;
+
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] sccStack = new int[n];    // seen nodes of unfinished components
+        int[] callStack = new int[n];   // nodes of the current DFS path
+        int[] cursor = new int[n];      // next edge to follow per node on the path
+        int top = 0;
 
         for(int i = 0; i < n; i++) {
-            if(ids[i] == UNVISITED)
-                dfs(i);
+            if(ids[i] != UNVISITED)
+                continue;
+
+            int depth = 0;
+            callStack[depth++] = i;
+            sccStack[top++] = i;
+            onStack[i] = true;
+            ids[i] = lows[i] = id++;
+            cursor[i] = offsets[i];
+
+            while(depth > 0) {
+                int at = callStack[depth - 1];
+
+                if(cursor[at] < offsets[at + 1]) {
+                    int to = targets[cursor[at]++];
+                    if(ids[to] == UNVISITED) {
+                        // `recursive call`
+                        callStack[depth++] = to;
+                        sccStack[top++] = to;
+                        onStack[to] = true;
+                        ids[to] = lows[to] = id++;
+                        cursor[to] = offsets[to];
+                    }
+                    else if(onStack[to])
+                        lows[at] = Math.min(lows[at], lows[to]);
+                    continue;
+                }
+
+                // all edges done | `return` to the parent
+                depth--;
+                if(ids[at] == lows[at]) {
+                    for(int node = sccStack[--top]; ; node = sccStack[--top]) {
+                        onStack[node] = false;
+                        lows[node] = ids[at];
+                        components[node] = sccCount;
+
+                        if(node == at)
+                            break;
+                    }
+                    ++sccCount;
+                }
+
+                if(depth > 0 && onStack[at]) {
+                    int parent = callStack[depth - 1];
+                    lows[parent] = Math.min(lows[parent], lows[at]);
+                }
+            }
         }
 
         isSolved = true;
     }
 
 
+    // recursive version, depth of the DFS is limited by the thread stack | returns the number of components
+    int solveRecursive() {
+        ids = new int[n];
+        lows = new int[n];
+        onStack = new boolean[n];
+        stack = new ArrayDeque<>();
+        Arrays.fill(ids, UNVISITED);
+        id = sccCount = 0;
+
+        for(int i = 0; i < n; i++) {
+            if(ids[i] == UNVISITED)
+                dfs(i);
+        }
+        return sccCount;
+    }
+
+
     private void dfs(int at) {
         stack.push(at);
         onStack[at] = true;
         ids[at] = lows[at] = id++;
 
-        for(int to : graph.get(at)) {
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        for(int e = offsets[at]; e < offsets[at + 1]; e++) {
+            int to = targets[e];
             if(ids[to] == UNVISITED)
                 dfs(to);
             
@@ -73,6 +175,49 @@ class TarjansSCC {
     }
 
 
+    // one node per component, edge c --> d when some edge crosses from c to d, O(V + E)
+    public CSRGraph condensation() {
+        return condense(graph, getComponentIds(), getSccCount());
+    }
+
+
+    // works for the dense ids of any SCC engine (getComponentIds(), not the getSCC() labels), comp[v] in 0..sccCount-1
+    static CSRGraph condense(CSRGraph graph, int[] comp, int sccCount) {
+        int n = graph.numOfNodes();
+        int[] offsets = graph.offsets(), targets = graph.targets();
+
+        // nodes grouped by component (counting sort) so every component is scanned in one go
+        int[] start = new int[sccCount + 1];
+        for(int v = 0; v < n; v++)
+            start[comp[v] + 1]++;
+        for(int c = 0; c < sccCount; c++)
+            start[c + 1] += start[c];
+        int[] members = new int[n];
+        int[] cursor = Arrays.copyOf(start, sccCount);
+        for(int v = 0; v < n; v++)
+            members[cursor[comp[v]]++] = v;
+
+        // lastSeen[d] == c --> edge c -> d already added
+        int[] lastSeen = new int[sccCount];
+        Arrays.fill(lastSeen, -1);
+        CSRGraph.Builder builder = new CSRGraph.Builder(sccCount);
+        for(int c = 0; c < sccCount; c++) {
+            for(int i = start[c]; i < start[c + 1]; i++) {
+                int from = members[i];
+                for(int e = offsets[from]; e < offsets[from + 1]; e++) {
+                    int d = comp[targets[e]];
+                    if(d != c && lastSeen[d] != c) {
+                        lastSeen[d] = c;
+                        builder.addEdge(c, d);
+                    }
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+
     // graph with adjacency list
     private static List<List<Integer>> initGraph(int n) {
         List<List<Integer>> graph = new ArrayList<>(n);
@@ -126,6 +271,38 @@ class TarjansSCC {
         // Strongly Connected Component List
         for(List<Integer> cc : multiMap.values()) 
             System.out.println("Nodes:- " + cc);
+
+        System.out.println("component ids:- " + Arrays.toString(tarjansSCC.getComponentIds()));
+        CSRGraph dag = tarjansSCC.condensation();
+        for(int c = 0; c < dag.numOfNodes(); c++) {
+            int[] offsets = dag.offsets();
+            System.out.println("DAG " + c + " -> " + Arrays.toString(Arrays.copyOfRange(dag.targets(), offsets[c], offsets[c + 1])));
+        }
+
+        crossCheck();
+    }
+
+
+    // one long path with random short back edges, both versions must find the same components
+    // timings are in Benchmark (java Benchmark scc)
+    private static void crossCheck() {
+        final int n = 2_000;
+        Random random = new Random(11);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n);
+        for(int v = 0; v + 1 < n; v++)
+            builder.addEdge(v, v + 1);
+        // short back edges close small cycles along the path
+        for(int i = 0; i < n / 8; i++) {
+            int v = random.nextInt(n);
+            builder.addEdge(v, Math.max(0, v - 1 - random.nextInt(16)));
+        }
+        CSRGraph graph = builder.build();
+
+        TarjansSCC iterative = new TarjansSCC(graph), recursive = new TarjansSCC(graph);
+        int[] lows = iterative.getSCC();
+        int count = recursive.solveRecursive();
+        System.out.printf("%d SCCs, iterative and recursive agree: %b\n", count,
+            count == iterative.getSccCount() && Arrays.equals(lows, recursive.lows));
     }
 }
 
@@ -137,4 +314,9 @@ number of SCC:- 3
 Nodes:- [0, 1, 2]
 Nodes:- [3, 7]
 Nodes:- [4, 5, 6]
+component ids:- [0, 0, 0, 2, 1, 1, 1, 2]
+DAG 0 -> []
+DAG 1 -> [0]
+DAG 2 -> [1]
+731 SCCs, iterative and recursive agree: true
 */
\ No newline at end of file
@@ -46,6 +46,47 @@ class TopologicalSort {
     }
 
 
+    // same DFS ordering as topSort above, over a CSR graph with an explicit stack
+    // so deep DAGs do not overflow the call stack
+    static int[] topSort(CSRGraph graph) {
+        int numOfNodes = graph.numOfNodes();
+        int[] offsets = graph.offsets(), targets = graph.targets();
+        int[] order = new int[numOfNodes];
+        int[] stack = new int[numOfNodes];
+        int[] cursor = new int[numOfNodes];     // next edge to explore of the node on stack
+        boolean[] visited = new boolean[numOfNodes];
+
+        int i = numOfNodes - 1;
+        for(int root = 0; root < numOfNodes; root++) {
+            if(visited[root])
+                continue;
+
+            int top = 0;
+            visited[root] = true;
+            cursor[root] = offsets[root];
+            stack[top++] = root;
+
+            while(top > 0) {
+                int at = stack[top - 1];
+                if(cursor[at] < offsets[at + 1]) {
+                    int to = targets[cursor[at]++];
+                    if(!visited[to]) {
+                        visited[to] = true;
+                        cursor[to] = offsets[to];
+                        stack[top++] = to;
+                    }
+                }
+                else {
+                    order[i--] = at;    // all children done | same as return of recursive dfs
+                    top--;
+                }
+            }
+        }
+
+        return order;
+    }
+
+
     // topological sort is to find the shortest path
     // between two nodes in a Directed Acyclic Graph (DAG)
     private static Integer[] dagShortestPath(List<List<Edge>> graph, int numOfNodes, int startVertex) {
@@ -76,6 +117,32 @@ class TopologicalSort {
     }
 
 
+    // unreachable nodes stay +inf
+    static double[] dagShortestPath(CSRGraph graph, int startVertex) {
+        int numOfNodes = graph.numOfNodes();
+        int[] order = topSort(graph);
+        int[] offsets = graph.offsets(), targets = graph.targets(), costs = graph.costs();
+
+        double[] dist = new double[numOfNodes];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[startVertex] = 0;
+
+        for(int i = 0; i < numOfNodes; i++) {
+            int nodeIndex = order[i];
+            if(dist[nodeIndex] == Double.POSITIVE_INFINITY)
+                continue;
+
+            for(int e = offsets[nodeIndex]; e < offsets[nodeIndex + 1]; e++) {
+                double newDist = dist[nodeIndex] + costs[e];
+                if(newDist < dist[targets[e]])
+                    dist[targets[e]] = newDist;
+            }
+        }
+
+        return dist;
+    }
+
+
     private static List<List<Edge>> initGraph(int n) {
         List<List<Edge>> graph = new ArrayList<>();
         for(int i = 0; i < n; i++)